@@ -5,6 +5,8 @@
 package frc.robot;
 
 
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
 import edu.wpi.first.math.geometry.Translation3d;
 import edu.wpi.first.math.util.Units;
 import edu.wpi.first.wpilibj2.command.button.CommandJoystick;
@@ -65,8 +67,23 @@ public final class Constants {
   public static final double DONT_SEE_TAG_WAIT_TIME = 1;
   public static final double POSE_VALIDATION_TIME = 0.3;
 
+  /** The NetworkTables name of the limelight */
+  public static final String LIMELIGHT_NAME = "limelight";
+  /** Every limelight on the robot, the main one first */
+  public static final String[] LIMELIGHT_NAMES = { LIMELIGHT_NAME };
+  /** Where the main limelight sits on the robot (placeholder, measure this) */
+  public static final Transform3d LIMELIGHT_ROBOT_TO_CAMERA = new Transform3d(
+      new Translation3d(Units.inchesToMeters(12), 0, Units.inchesToMeters(20)),
+      new Rotation3d(0, Units.degreesToRadians(-20), 0));
+  /** Limelight 3 field of view in degrees */
+  public static final double LIMELIGHT_HORIZONTAL_FOV = 62.5;
+  public static final double LIMELIGHT_VERTICAL_FOV = 48.9;
   /** The limelight pipeline id to be used with the limelight */
   public static final int LIMELIGHT_PIPELINE_ID = 0;
+  /** Vision x/y standard deviation in meters for one tag right in front of the camera */
+  public static final double VISION_XY_STD_DEV = 0.3;
+  /** Decode vision on a NetworkTables listener thread instead of in the robot loop */
+  public static final boolean VISION_EVENT_MODE = false;
   /** Disables apriltag tracking :( */
   public static final boolean SAD_LIMELIGHT_MODE = false; //True for testing
 
@@ -76,6 +93,26 @@ public final class Constants {
     public static final int SHOOTER_MOTOR_B = 15;
      public static final int FEEDER_MOTOR = 15;
 
+    // Shooter velocity control, runs on the SparkMax at 1 kHz
+    /** Use the SparkMax velocity closed loop instead of the roboRIO PID */
+    public static final boolean SHOOTER_ONBOARD_VELOCITY = true;
+    /** Flywheel speed at a setpoint of 1 (RPM), free speed of a NEO */
+    public static final double SHOOTER_MAX_RPM = 5676;
+    /** Volts to overcome friction */
+    public static final double SHOOTER_KS = 0.12;
+    /** Volts per RPM, 12 V / free speed to start */
+    public static final double SHOOTER_KV = 12.0 / 5676;
+    /** Duty cycle per RPM of error */
+    public static final double SHOOTER_VELOCITY_P = 0.0002;
+    /** Volts per RPM per second, placeholder until the flywheel is characterized with SysId */
+    public static final double SHOOTER_KA = 0.002;
+    /** Use the state space (LQR + Kalman filter) flywheel controller on the roboRIO, overrides onboard velocity */
+    public static final boolean SHOOTER_STATE_SPACE = false;
+    /** Flywheel counts as at speed within this many RPM of the setpoint */
+    public static final double SHOOTER_READY_TOLERANCE_RPM = 100;
+    /** Loops in a row the flywheel must be at speed before firing */
+    public static final int SHOOTER_READY_SAMPLES = 5;
+
     //Climber ID
     public static final int CLIMBER_MOTOR=12;
 
@@ -7,6 +7,7 @@ package frc.robot;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.util.vision.VisionSnapshot;
 
 public class Robot extends TimedRobot {
   private Command m_autonomousCommand;
@@ -19,6 +20,8 @@ public class Robot extends TimedRobot {
 
   @Override
   public void robotPeriodic() {
+    // Read vision once so every command sees the same frame this loop
+    VisionSnapshot.update(Constants.LIMELIGHT_NAME);
     CommandScheduler.getInstance().run();
   }
 
@@ -17,9 +17,11 @@ import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
 import frc.robot.Constants.OperatorConstants;
 import frc.robot.subsystems.SwerveSubsystem;
+import frc.robot.subsystems.VisionSubsystem;
+import frc.robot.util.CalibrationWatcher;
 import frc.robot.util.LimelightTAMatrix;
 import frc.robot.util.ShooterDistanceMatrix;
-import frc.robot.util.drivers.LimelightHelpers;
+import frc.robot.util.vision.TargetTracker;
 import swervelib.SwerveInputStream;
 
 /**
@@ -40,26 +42,31 @@ public class RobotContainer {
 
   private final SwerveSubsystem drivebase = new SwerveSubsystem(new File(Filesystem.getDeployDirectory(),
       "swerve/neo"));
-  //private final ShooterSubsystem m_shooter = new ShooterSubsystem();
+  private final VisionSubsystem vision = new VisionSubsystem(drivebase, Constants.LIMELIGHT_NAMES);
+  //private final ShooterSubsystem m_shooter = new ShooterSubsystem(vision, drivebase);
   //private final ShootCmd shootCmd;
 
 
 
   // More shooter stuff: private final ShooterSubsystem shooter = new ShooterSubsystem();
+  // private final Feeder feeder = new Feeder();
 
   public DoubleSupplier getPosTwist = () -> m_primary.getRawAxis(5) * ((m_primary.getZ() - (23.0 / 9.0)) / (40.0 / 9.0));
   public DoubleSupplier followTag = () -> {
-        if (LimelightHelpers.getTV("limelight")) {
-          return -Math.max(-0.75, Math.min(LimelightHelpers.getTX("limelight") / 27.0, 0.75));
+        TargetTracker target = vision.getTargetTracker();
+        if (target.hasTarget()) {
+          return -Math.max(-0.75, Math.min(target.getTx() / 27.0, 0.75));
         } else return 0;
       };
 
   SwerveInputStream driveFollowTag = SwerveInputStream.of(drivebase.getSwerveDrive(), 
   () -> {
-    if (!LimelightHelpers.getTV("limelight")) return 0;
-    double ta = LimelightHelpers.getTA("limelight");
+    TargetTracker target = vision.getTargetTracker();
+    if (!target.hasTarget()) return 0;
+    double ta = target.getTa();
+    if (ta <= 0) return 0;
     if (ta < 1.7) {
-      return (1 / -ta);
+      return Math.max(-0.75, 1 / -ta);
     } else if (ta > 4) {
       return ta / 15;
     } else return 0;
@@ -94,6 +101,7 @@ public class RobotContainer {
     configureBindings();
     LimelightTAMatrix.InitializeMatrix();
     ShooterDistanceMatrix.InitializeMatrix();
+    CalibrationWatcher.start();
     DriverStation.silenceJoystickConnectionWarning(true);
 
     //shootCmd = new ShootCmd(m_shooter);
@@ -136,9 +144,14 @@ public class RobotContainer {
 
     drivebase.setDefaultCommand(driveFieldOrientedAnglularVelocity);
     m_primary.button(2).onTrue(drivebase.zeroGyroCmd());
+    m_secondary.back().toggleOnTrue(vision.recordCommand()); // Record vision for VisionReplayer
     /* Shooter stuff:
     m_primary.button(1).onChange(shooter.triggerThing());
     shooter.setDefaultCommand(shooter.Shoot());
+    m_secondary.a().onTrue(shooter.markShot(true)); // Shot log make/miss, for calibration
+    m_secondary.b().onTrue(shooter.markShot(false));
+    m_secondary.rightTrigger().whileTrue(feeder.fireWhenReady(shooter::isReadyToFire, shooter::onBallFed));
+    m_secondary.leftTrigger().whileTrue(shooter.aimWhileDriving(driveAngularVelocity)); // Face the shoot on the move heading
     */
 
     // Primary Driver
@@ -2,6 +2,7 @@ package frc.robot.commands;
 
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Constants.SubsystemConstants;
 import frc.robot.subsystems.ShooterSubsystem;
 
 public class ShootCmd extends Command {
@@ -27,6 +28,10 @@ public class ShootCmd extends Command {
 
     @Override
     public void execute() {
+        if (SubsystemConstants.SHOOTER_ONBOARD_VELOCITY) {
+            shooter.setVelocity(setpoint * SubsystemConstants.SHOOTER_MAX_RPM);
+            return;
+        }
         shooter.setSpeeds(pid.calculate(shooter.encoderA.getVelocity(), setpoint) * 10); // This should never be ran at the same time as ShooterSubsystem, this is for auto use only
     }
 
@@ -1,7 +1,10 @@
 package frc.robot.subsystems;
 
+import java.util.function.BooleanSupplier;
+
 import com.revrobotics.spark.SparkMax;
 
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.SubsystemConstants;
@@ -9,6 +12,13 @@ import frc.robot.Constants.SubsystemConstants;
 public class Feeder extends SubsystemBase {
     SparkMax feeder;
 
+    /** How long the feeder runs to send one ball (seconds) */
+    public static final double PULSE_SECONDS = 0.12;
+    /** Wait after a pulse before trusting the ready signal, the flywheel dip shows up a little after the ball */
+    public static final double SETTLE_SECONDS = 0.08;
+
+    private double pulseStart = Double.NEGATIVE_INFINITY;
+
     public Feeder() {
         feeder = new SparkMax(SubsystemConstants.FEEDER_MOTOR, SparkMax.MotorType.kBrushless);
     }
@@ -24,4 +34,30 @@ public class Feeder extends SubsystemBase {
     public Command feed() {
         return run(() -> {feedBalls();}).finallyDo(() -> {stopFeeding();});
     }
+
+    /**
+     * Feeds one ball at a time, only when the shooter is ready. Each pulse is followed by a pause so the flywheel can
+     * recover from the ball before the next one goes in.
+     * @param ready if the shooter is at speed, see {@link ShooterSubsystem#isReadyToFire()}
+     * @param onShot called as each ball is fed, e.g. {@link ShooterSubsystem#onBallFed()}
+     */
+    public Command fireWhenReady(BooleanSupplier ready, Runnable onShot) {
+        return run(() -> {
+            double sincePulse = Timer.getFPGATimestamp() - pulseStart;
+            if (sincePulse < PULSE_SECONDS) {
+                feedBalls();
+                return;
+            }
+
+            stopFeeding();
+            if (sincePulse >= PULSE_SECONDS + SETTLE_SECONDS && ready.getAsBoolean()) {
+                pulseStart = Timer.getFPGATimestamp();
+                onShot.run();
+                feedBalls();
+            }
+        }).finallyDo(() -> {
+            pulseStart = Double.NEGATIVE_INFINITY;
+            stopFeeding();
+        });
+    }
 }
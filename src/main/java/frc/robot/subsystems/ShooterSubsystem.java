@@ -1,20 +1,42 @@
 package frc.robot.subsystems;
 
 import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
 
 import com.revrobotics.AbsoluteEncoder;
+import com.revrobotics.PersistMode;
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.ResetMode;
+import com.revrobotics.spark.FeedbackSensor;
+import com.revrobotics.spark.SparkBase.ControlType;
+import com.revrobotics.spark.SparkClosedLoopController;
 import com.revrobotics.spark.SparkMax;
+import com.revrobotics.spark.config.SparkMaxConfig;
+import com.revrobotics.sim.SparkMaxSim;
 
 import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.system.plant.DCMotor;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.FlywheelSim;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants;
 import frc.robot.Constants.SubsystemConstants;
-import frc.robot.util.LimelightTAMatrix;
-import frc.robot.util.ShooterDistanceMatrix;
+import frc.robot.util.ShotLogger;
+import frc.robot.util.ShotSolver;
+import frc.robot.util.StateSpaceFlywheel;
 import frc.robot.util.drivers.LimelightHelpers;
 import frc.robot.util.math.MathUtils;
+import frc.robot.util.vision.HubDistanceEstimator;
+import frc.robot.util.vision.HubTargets;
+import frc.robot.util.vision.TargetTracker;
 
 /** Shooter subsystem for controlling the flywheel(s) */
 
@@ -35,9 +57,49 @@ public class ShooterSubsystem extends SubsystemBase {
 
     SparkMax sparkMaxA, sparkMaxB;
     public AbsoluteEncoder encoderA, encoderB;
+    /** Built in NEO encoders, RPM, used by the onboard velocity loop */
+    private RelativeEncoder motorEncoderA;
+    private SparkClosedLoopController velocityControllerA, velocityControllerB;
+    private double velocitySetpoint = 0;
+    /** Loops in a row the flywheel has been at speed */
+    private int readySamples = 0;
 
-    public ShooterSubsystem() {
+    /** Highest duty cycle the flywheel is allowed, tested safe with the PID shooter */
+    public static final double MAX_OUTPUT = 0.7;
+
+    private final StateSpaceFlywheel flywheelLoop = new StateSpaceFlywheel(SubsystemConstants.SHOOTER_KV,
+            SubsystemConstants.SHOOTER_KA, MAX_OUTPUT * 12, TimedRobot.kDefaultPeriod);
+    /** Simulated flywheel and motor controllers, null on the robot */
+    private FlywheelSim flywheelSim;
+    private SparkMaxSim sparkSimA, sparkSimB;
+    /** Fraction of flywheel speed each simulated ball takes with it */
+    public static final double SIM_BALL_VELOCITY_LOSS = 0.15;
+    /** Balls fed since the last simulation step */
+    private int simBallsFed = 0;
+
+    /** Filtered hub target from the main limelight */
+    private TargetTracker target;
+    private HubTargets hubTargets;
+    private HubDistanceEstimator hubDistance;
+    private final SwerveSubsystem drivebase;
+    private final ShotSolver shotSolver = new ShotSolver();
+    /** If the solver ran this loop */
+    private boolean hasShotSolution = false;
+    private final ShotLogger shotLogger = new ShotLogger(ShotLogger.DEFAULT_FILE);
+
+    /** Distance estimates less confident than this are ignored */
+    public static final double MIN_DISTANCE_CONFIDENCE = 0.2;
+
+    /**
+     * @param vision the vision subsystem, used to aim at and range the hub
+     * @param drivebase the drivebase, used to compensate for driving while shooting
+     */
+    public ShooterSubsystem(VisionSubsystem vision, SwerveSubsystem drivebase) {
         Instance = this;
+        this.drivebase = drivebase;
+        target = vision.getTargetTracker();
+        hubTargets = vision.getHubTargets();
+        hubDistance = vision.getHubDistance();
 
         Log("Shooter subsystem loading...");
         Log("P: " + p + ", I: " + i + ", D: " + d);
@@ -50,11 +112,41 @@ public class ShooterSubsystem extends SubsystemBase {
         encoderA = sparkMaxA.getAbsoluteEncoder();
         encoderB = sparkMaxB.getAbsoluteEncoder();
 
+        SparkMaxConfig config = velocityConfig();
+        sparkMaxA.configure(config, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
+        sparkMaxB.configure(config, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
+
+        motorEncoderA = sparkMaxA.getEncoder();
+        velocityControllerA = sparkMaxA.getClosedLoopController();
+        velocityControllerB = sparkMaxB.getClosedLoopController();
+
         pidController = new PIDController(p, i, d);
         pidController.setSetpoint(0);
-        //pidController.setTolerance(0.05, 0.05);
+        pidController.setTolerance(0.05, 0.05);
+
+        LimelightHelpers.setPipelineIndex(Constants.LIMELIGHT_NAME, Constants.LIMELIGHT_PIPELINE_ID);
 
-        LimelightHelpers.setPipelineIndex("limelight", Constants.LIMELIGHT_PIPELINE_ID);
+        if (RobotBase.isSimulation()) {
+            flywheelSim = new FlywheelSim(flywheelLoop.getPlant(), DCMotor.getNEO(2));
+            sparkSimA = new SparkMaxSim(sparkMaxA, DCMotor.getNEO(1));
+            sparkSimB = new SparkMaxSim(sparkMaxB, DCMotor.getNEO(1));
+        }
+    }
+
+    /**
+     * Velocity loop and feedforward run on the SparkMax, the roboRIO only sends setpoints in RPM
+     * @return config for both flywheel motors
+     */
+    static SparkMaxConfig velocityConfig() {
+        SparkMaxConfig config = new SparkMaxConfig();
+        config.closedLoop
+                .feedbackSensor(FeedbackSensor.kPrimaryEncoder)
+                .p(SubsystemConstants.SHOOTER_VELOCITY_P)
+                .outputRange(0, MAX_OUTPUT);
+        config.closedLoop.feedForward
+                .kS(SubsystemConstants.SHOOTER_KS)
+                .kV(SubsystemConstants.SHOOTER_KV);
+        return config;
     }
 
     /**
@@ -62,30 +154,140 @@ public class ShooterSubsystem extends SubsystemBase {
      * @return limelight horizontal offset to april tag at hub
      */
     public DoubleSupplier aprilTagPos = () -> {
-        if (!LimelightHelpers.getTV("limelight") || Constants.SAD_LIMELIGHT_MODE) return 0;
+        if (!target.hasTarget() || Constants.SAD_LIMELIGHT_MODE) return 0;
 
-        if (LimelightHelpers.getTID() == 10 || LimelightHelpers.getTID() == 25) {
-            return LimelightHelpers.getTX("limelight");
+        if (hubTargets.isHubTag(target.getTid())) {
+            return target.getTx();
         }
 
         return 0;
     };
 
     /**
-     * Calculates flywheel speed based on limelight data. If no target, returns 0.7
+     * Calculates flywheel speed for the shoot on the move solution, so driving toward or away from the hub is
+     * accounted for. If there is no confident distance, returns 0.7
      * @return flywheel speed (0.05 to 1)
      */
     public double limelightCalculator() {
-        if (!LimelightHelpers.getTV("limelight") || Constants.SAD_LIMELIGHT_MODE) return 0.7; // set flywheel speed regardless of vision
+        if (Constants.SAD_LIMELIGHT_MODE) return 0.7; // set flywheel speed regardless of vision
 
-        if (LimelightHelpers.getTID() == 10 || LimelightHelpers.getTID() == 26) {
-            double ta = LimelightHelpers.getTA("limelight");
-            return ShooterDistanceMatrix.get(LimelightTAMatrix.get(ta));
+        if (hasShotSolution) {
+            return shotSolver.getFlywheelSpeed();
         }
 
-
         return 0.7;
     }
+    @Override
+    public void periodic() {
+        SmartDashboard.putNumber("Shooter RPM", getVelocity());
+        SmartDashboard.putNumber("Shooter Setpoint RPM", velocitySetpoint);
+
+        readySamples = isAtSpeed() ? Math.min(readySamples + 1, SubsystemConstants.SHOOTER_READY_SAMPLES) : 0;
+        SmartDashboard.putBoolean("Shooter Ready", isReadyToFire());
+
+        hasShotSolution = hubDistance.getConfidence() >= MIN_DISTANCE_CONFIDENCE;
+        if (!hasShotSolution) return;
+
+        // Bearing from the fused pose, range from whichever distance source is most trusted right now
+        Pose2d pose = drivebase.getPose();
+        double hubX = hubDistance.getHubX(), hubY = hubDistance.getHubY();
+        double bearing = Math.atan2(hubY - pose.getY(), hubX - pose.getX());
+        double range = hubDistance.getDistance() / 100;
+        ChassisSpeeds velocity = drivebase.getFieldVelocity();
+        shotSolver.solve(hubX - range * Math.cos(bearing), hubY - range * Math.sin(bearing),
+                velocity.vxMetersPerSecond, velocity.vyMetersPerSecond, hubX, hubY);
+    }
+
+    /** Velocity within tolerance right now, no debounce */
+    private boolean isAtSpeed() {
+        if (SubsystemConstants.SHOOTER_STATE_SPACE || SubsystemConstants.SHOOTER_ONBOARD_VELOCITY) {
+            return velocitySetpoint > 0
+                    && Math.abs(getVelocity() - velocitySetpoint) < SubsystemConstants.SHOOTER_READY_TOLERANCE_RPM;
+        }
+        return pidController.getSetpoint() > 0 && pidController.atSetpoint();
+    }
+
+    /**
+     * Debounced so one lucky sample during spin up or recovery doesn't let a weak shot through
+     * @return if the flywheel has been at speed for {@link SubsystemConstants#SHOOTER_READY_SAMPLES} loops
+     */
+    public boolean isReadyToFire() {
+        return readySamples >= SubsystemConstants.SHOOTER_READY_SAMPLES;
+    }
+
+    @Override
+    public void simulationPeriodic() {
+        // Each ball takes some of the flywheel's speed with it
+        while (simBallsFed > 0) {
+            flywheelSim.setAngularVelocity(flywheelSim.getAngularVelocityRadPerSec() * (1 - SIM_BALL_VELOCITY_LOSS));
+            simBallsFed--;
+        }
+
+        double batteryVoltage = RobotController.getBatteryVoltage();
+        flywheelSim.setInputVoltage(sparkSimA.getAppliedOutput() * batteryVoltage);
+        flywheelSim.update(TimedRobot.kDefaultPeriod);
+
+        double rpm = flywheelSim.getAngularVelocityRPM();
+        sparkSimA.iterate(rpm, batteryVoltage, TimedRobot.kDefaultPeriod);
+        sparkSimB.iterate(rpm, batteryVoltage, TimedRobot.kDefaultPeriod);
+    }
+
+    /**
+     * Gets the shoot on the move solution, for aiming the drivebase while driving
+     * @return the solver, solved every loop while the hub distance is confident
+     */
+    public ShotSolver getShotSolver() {
+        return shotSolver;
+    }
+
+    /**
+     * @return field relative heading the robot should face to make the shot, NaN without a confident distance
+     */
+    public double getAimHeading() {
+        return hasShotSolution ? shotSolver.getHeadingRadians() : Double.NaN;
+    }
+
+    /**
+     * Drives with the driver's translation while turning the robot to the shoot on the move heading. Rotation is
+     * left to the driver while there is no solution.
+     * @param driverSpeeds field relative speeds from the driver
+     * @return the command, requires the drivebase
+     */
+    public Command aimWhileDriving(Supplier<ChassisSpeeds> driverSpeeds) {
+        return drivebase.driveFacing(driverSpeeds, this::getAimHeading);
+    }
+
+    /**
+     * Logs a shot with the current distance, setpoint and flywheel velocity. Call as each ball is fed. The distance is
+     * logged as NaN when it isn't confident, so the fitter can skip the shot.
+     */
+    public void recordShot() {
+        ChassisSpeeds velocity = drivebase.getFieldVelocity();
+        double radialVelocity = hubDistance.getRadialVelocity(drivebase.getPose(), velocity.vxMetersPerSecond,
+                velocity.vyMetersPerSecond);
+        double distance = hasShotSolution ? hubDistance.getDistance() : Double.NaN;
+        shotLogger.logShot(distance, getSetpoint.getAsDouble(), getVelocity(), radialVelocity);
+    }
+
+    /**
+     * Call as each ball is fed, e.g. as the feeder's onShot hook. Logs the shot and, in simulation, takes the ball's
+     * share of the flywheel speed.
+     */
+    public void onBallFed() {
+        recordShot();
+        if (flywheelSim != null) {
+            simBallsFed++;
+        }
+    }
+
+    /**
+     * Operator command to mark the last shot as made or missed, for calibrating the shooter tables
+     * @param made if the shot went in
+     */
+    public Command markShot(boolean made) {
+        return Commands.runOnce(() -> shotLogger.markLastShot(made));
+    }
+
     /**
      * Toggle override for drive control
      */
@@ -109,11 +311,25 @@ public class ShooterSubsystem extends SubsystemBase {
      */
     public Command Shoot() {
         return run(() -> {
+            if (SubsystemConstants.SHOOTER_STATE_SPACE) {
+                velocitySetpoint = Math.max(getSetpoint.getAsDouble() * SubsystemConstants.SHOOTER_MAX_RPM, 0);
+                double volts = flywheelLoop.calculate(velocitySetpoint, getVelocity());
+                double maxVolts = MAX_OUTPUT * RobotController.getBatteryVoltage();
+                sparkMaxA.setVoltage(MathUtils.clamp(volts, 0, maxVolts));
+                sparkMaxB.setVoltage(MathUtils.clamp(volts, 0, maxVolts));
+                return;
+            }
+
+            if (SubsystemConstants.SHOOTER_ONBOARD_VELOCITY) {
+                setVelocity(getSetpoint.getAsDouble() * SubsystemConstants.SHOOTER_MAX_RPM);
+                return;
+            }
+
             double beforeClamp = pidController.calculate(encoderA.getVelocity(), getSetpoint.getAsDouble()) * 10; // This has been tested and is safe for robot use
-            double speed = MathUtils.clamp( beforeClamp, 0, 0.7);
+            double speed = MathUtils.clamp( beforeClamp, 0, MAX_OUTPUT);
 
             setSpeeds(speed);
-        });
+        }).beforeStarting(() -> flywheelLoop.reset(getVelocity()));
     }
 
     /**
@@ -121,10 +337,35 @@ public class ShooterSubsystem extends SubsystemBase {
      * @param speed the target speed
      */
     public void setSpeeds(double speed) {
+        velocitySetpoint = 0;
         sparkMaxA.set(speed);
         sparkMaxB.set(speed); 
     }
 
+    /**
+     * Runs both motors at a velocity using the SparkMax closed loop. Negative setpoints stop the flywheel.
+     * @param rpm target flywheel velocity in RPM
+     */
+    public void setVelocity(double rpm) {
+        velocitySetpoint = Math.max(rpm, 0);
+        velocityControllerA.setSetpoint(velocitySetpoint, ControlType.kVelocity);
+        velocityControllerB.setSetpoint(velocitySetpoint, ControlType.kVelocity);
+    }
+
+    /**
+     * @return flywheel velocity from the NEO encoder in RPM
+     */
+    public double getVelocity() {
+        return motorEncoderA.getVelocity();
+    }
+
+    /**
+     * @return last velocity setpoint in RPM, 0 when running open loop
+     */
+    public double getVelocitySetpoint() {
+        return velocitySetpoint;
+    }
+
     /**
      * Debug command to update PID values
      * @param kP P
@@ -18,12 +18,15 @@ import com.pathplanner.lib.path.PathPlannerPath;
 import com.pathplanner.lib.util.DriveFeedforwards;
 import com.pathplanner.lib.util.swerve.SwerveSetpoint;
 import com.pathplanner.lib.util.swerve.SwerveSetpointGenerator;
+import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.controller.SimpleMotorFeedforward;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.math.trajectory.Trajectory;
 import edu.wpi.first.math.util.Units;
 import edu.wpi.first.wpilibj.DriverStation;
@@ -35,6 +38,7 @@ import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine.Config;
 import frc.robot.Constants;
+import frc.robot.util.PoseHistory;
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
@@ -58,6 +62,10 @@ public class SwerveSubsystem extends SubsystemBase
    * Swerve drive object.
    */
   private final SwerveDrive swerveDrive;
+  /**
+   * Odometry samples from the last second, for latency compensation.
+   */
+  private final PoseHistory poseHistory = new PoseHistory(50);
 
   /**
    * Initialize {@link SwerveDrive} with the directory provided.
@@ -115,6 +123,15 @@ public class SwerveSubsystem extends SubsystemBase
   public void periodic()
   {
     //System.out.println(swerveDrive.getModules()[2].getAbsolutePosition());
+    Pose2d pose = swerveDrive.getPose();
+    ChassisSpeeds fieldVelocity = swerveDrive.getFieldVelocity();
+    poseHistory.add(Timer.getFPGATimestamp(),
+                    pose.getX(),
+                    pose.getY(),
+                    pose.getRotation().getRadians(),
+                    fieldVelocity.vxMetersPerSecond,
+                    fieldVelocity.vyMetersPerSecond,
+                    fieldVelocity.omegaRadiansPerSecond);
   }
 
   @Override
@@ -435,6 +452,27 @@ public class SwerveSubsystem extends SubsystemBase
     swerveDrive.driveFieldOriented(velocity);
   }
 
+  /**
+   * Drive the robot with a field oriented translation while the heading controller turns it to face a heading.
+   *
+   * @param velocity       Velocity according to the field, its rotation is used while the heading is NaN.
+   * @param headingRadians Field relative heading to face, NaN to leave rotation to the velocity.
+   * @return Drive command.
+   */
+  public Command driveFacing(Supplier<ChassisSpeeds> velocity, DoubleSupplier headingRadians)
+  {
+    return run(() -> {
+      ChassisSpeeds speeds = velocity.get();
+      double heading = headingRadians.getAsDouble();
+      if (!Double.isNaN(heading))
+      {
+        speeds.omegaRadiansPerSecond = swerveDrive.swerveController.headingCalculate(getHeading().getRadians(),
+                                                                                     heading);
+      }
+      swerveDrive.driveFieldOriented(speeds);
+    });
+  }
+
   /**
    * Drive the robot given a chassis field oriented velocity.
    *
@@ -478,6 +516,30 @@ public class SwerveSubsystem extends SubsystemBase
   public void resetOdometry(Pose2d initialHolonomicPose)
   {
     swerveDrive.resetOdometry(initialHolonomicPose);
+    poseHistory.clear();
+  }
+
+  /**
+   * Gets the recent odometry history, filled every loop.
+   *
+   * @return the {@link PoseHistory} of the robot
+   */
+  public PoseHistory getPoseHistory()
+  {
+    return poseHistory;
+  }
+
+  /**
+   * Adds a vision measurement to the pose estimator.
+   *
+   * @param visionPose      The pose of the robot as measured by vision.
+   * @param timestamp       The timestamp of the measurement in seconds, same time base as
+   *                        {@link Timer#getFPGATimestamp()}.
+   * @param visionStdDevs   Standard deviations of the measurement (x meters, y meters, theta radians).
+   */
+  public void addVisionMeasurement(Pose2d visionPose, double timestamp, Matrix<N3, N1> visionStdDevs)
+  {
+    swerveDrive.addVisionMeasurement(visionPose, timestamp, visionStdDevs);
   }
 
   /**
@@ -490,6 +552,17 @@ public class SwerveSubsystem extends SubsystemBase
     return swerveDrive.getPose();
   }
 
+  /**
+   * Gets where the simulated robot actually is, without odometry drift or vision corrections. Falls back to
+   * {@link #getPose()} on a real robot.
+   *
+   * @return The ground truth pose in simulation
+   */
+  public Pose2d getSimulationPose()
+  {
+    return swerveDrive.getSimulationDriveTrainPose().orElseGet(this::getPose);
+  }
+
   /**
    * Set chassis speeds with closed-loop velocity control.
    *
@@ -511,11 +584,13 @@ public class SwerveSubsystem extends SubsystemBase
   }
 
   /**
-   * Resets the gyro angle to zero and resets odometry to the same position, but facing toward 0.
+   * Resets the gyro angle to zero and resets odometry to the same position, but facing toward 0. Clears the pose
+   * history, samples from before the zero have the old heading.
    */
   public void zeroGyro()
   {
     swerveDrive.zeroGyro();
+    poseHistory.clear();
   }
 
   /**
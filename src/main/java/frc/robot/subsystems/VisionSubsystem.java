@@ -0,0 +1,347 @@
+package frc.robot.subsystems;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.apriltag.AprilTagFields;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Constants;
+import frc.robot.util.drivers.LimelightHelpers;
+import frc.robot.util.vision.CropWindowController;
+import frc.robot.util.vision.DefaultVisionFilter;
+import frc.robot.util.vision.HubDistanceEstimator;
+import frc.robot.util.vision.HubTargets;
+import frc.robot.util.vision.LimelightSim;
+import frc.robot.util.vision.PoseEstimateBuffer;
+import frc.robot.util.vision.TargetTracker;
+import frc.robot.util.vision.VisionFrameBatch;
+import frc.robot.util.vision.VisionFrameQueue;
+import frc.robot.util.vision.VisionListener;
+import frc.robot.util.vision.VisionMeasurementFilter;
+import frc.robot.util.vision.VisionRecorder;
+import frc.robot.util.vision.VisionSnapshot;
+
+/** Vision subsystem, reads every limelight and merges their frames into one time-ordered measurement stream */
+
+public class VisionSubsystem extends SubsystemBase {
+    private final SwerveSubsystem drivebase;
+    private final String[] cameraNames;
+    private final VisionFrameQueue[] queues;
+    private final VisionListener[] listeners;
+
+    /** Decodes cameras in parallel, null with only one camera */
+    private final ExecutorService decodePool;
+    private final List<Callable<VisionFrameBatch>> decodeTasks = new ArrayList<>();
+
+    private final AprilTagFieldLayout field = AprilTagFieldLayout.loadField(AprilTagFields.kDefaultField);
+    private final HubTargets hubTargets;
+    private final TargetTracker targetTracker = new TargetTracker();
+    private final HubDistanceEstimator hubDistance;
+    private final CropWindowController cropController = new CropWindowController(Constants.LIMELIGHT_NAME,
+            Constants.LIMELIGHT_HORIZONTAL_FOV, Constants.LIMELIGHT_VERTICAL_FOV);
+    /** Publishes fake limelight data in simulation, null on the robot */
+    private final LimelightSim simulatedCamera;
+    /** Open while {@link #recordCommand()} is running */
+    private VisionRecorder recorder;
+
+    private final List<VisionMeasurementFilter> filters = new ArrayList<>();
+    private int rejectedCount;
+    /** Capture time of the last measurement fused into the drivebase */
+    private double lastFusedTimestamp = Double.NEGATIVE_INFINITY;
+
+    private final PoseEstimateBuffer[] measurements;
+    private final int[] measurementCameras;
+    private int measurementCount;
+
+    /**
+     * @param drivebase the drivebase whose pose estimator the vision measurements are fused into
+     * @param cameraNames NetworkTables names of every limelight on the robot
+     */
+    public VisionSubsystem(SwerveSubsystem drivebase, String... cameraNames) {
+        this.drivebase = drivebase;
+        this.cameraNames = cameraNames;
+        hubTargets = new HubTargets(Constants.LIMELIGHT_NAME, cameraNames);
+        hubDistance = new HubDistanceEstimator(Constants.LIMELIGHT_NAME, hubTargets, field);
+        int cameras = cameraNames.length;
+
+        if (Constants.VISION_EVENT_MODE) {
+            queues = null;
+            listeners = new VisionListener[cameras];
+            for (int i = 0; i < cameras; i++) {
+                listeners[i] = new VisionListener(cameraNames[i]);
+            }
+        } else {
+            listeners = null;
+            queues = new VisionFrameQueue[cameras];
+            for (int i = 0; i < cameras; i++) {
+                VisionFrameQueue queue = new VisionFrameQueue(cameraNames[i]);
+                queues[i] = queue;
+                decodeTasks.add(queue::read);
+            }
+        }
+
+        if (queues != null && cameras > 1) {
+            decodePool = Executors.newFixedThreadPool(Math.min(cameras, Runtime.getRuntime().availableProcessors()),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "VisionDecode");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        } else {
+            decodePool = null;
+        }
+
+        measurements = new PoseEstimateBuffer[cameras * VisionFrameQueue.DEFAULT_CAPACITY];
+        for (int i = 0; i < measurements.length; i++) {
+            measurements[i] = new PoseEstimateBuffer();
+        }
+        measurementCameras = new int[measurements.length];
+
+        filters.add(new DefaultVisionFilter(drivebase.getPoseHistory()));
+
+        if (RobotBase.isSimulation()) {
+            simulatedCamera = new LimelightSim(Constants.LIMELIGHT_NAME, drivebase::getSimulationPose, field,
+                    Constants.LIMELIGHT_ROBOT_TO_CAMERA)
+                    .withFov(Constants.LIMELIGHT_HORIZONTAL_FOV, Constants.LIMELIGHT_VERTICAL_FOV);
+        } else {
+            simulatedCamera = null;
+        }
+    }
+
+    /**
+     * Adds a scoring stage that runs on every measurement before it is fused, after the default filter
+     * @param filter the filter
+     */
+    public void addFilter(VisionMeasurementFilter filter) {
+        filters.add(filter);
+    }
+
+    /**
+     * @return measurements rejected by the filters since startup
+     */
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    @Override
+    public void periodic() {
+        hubTargets.update();
+        pushRobotOrientation();
+        readMeasurements();
+        fuseMeasurements();
+
+        double now = Timer.getFPGATimestamp();
+        targetTracker.update(VisionSnapshot.get(), drivebase.getPoseHistory(), now);
+        hubDistance.update(targetTracker, drivebase.getPose(), now - lastFusedTimestamp);
+        cropController.update(targetTracker);
+    }
+
+    /**
+     * Gets the distance to our hub, from whichever source is most trustworthy right now
+     * @return the distance estimator, updated every loop
+     */
+    public HubDistanceEstimator getHubDistance() {
+        return hubDistance;
+    }
+
+    /**
+     * Gets the tags on our alliance's hub
+     * @return the hub targets, updated every loop
+     */
+    public HubTargets getHubTargets() {
+        return hubTargets;
+    }
+
+    /**
+     * Crops the main limelight around the tracked tag while scheduled, for a higher frame rate while aiming
+     * @return the command, doesn't require this subsystem
+     */
+    public Command adaptiveCropCommand() {
+        return Commands.startEnd(() -> cropController.setEnabled(true), () -> cropController.setEnabled(false));
+    }
+
+    /**
+     * Records every camera update from the main limelight while scheduled, for {@link
+     * frc.robot.util.vision.VisionReplayer}. Each run writes a new vision-&lt;time&gt;.llrec file next to the shot log.
+     * @return the command, doesn't require this subsystem and runs while disabled
+     */
+    public Command recordCommand() {
+        return Commands.startEnd(() -> {
+            File file = new File(Filesystem.getOperatingDirectory(), "vision-" + System.currentTimeMillis() + ".llrec");
+            try {
+                recorder = new VisionRecorder(NetworkTableInstance.getDefault(), Constants.LIMELIGHT_NAME, file);
+            } catch (IOException e) {
+                DriverStation.reportWarning("Vision recording failed to start: " + e.getMessage(), false);
+            }
+        }, () -> {
+            if (recorder == null) return;
+            try {
+                recorder.close();
+            } catch (IOException e) {
+                DriverStation.reportWarning("Vision recording failed to close: " + e.getMessage(), false);
+            }
+            recorder = null;
+        }).ignoringDisable(true);
+    }
+
+    @Override
+    public void simulationPeriodic() {
+        if (simulatedCamera != null) {
+            simulatedCamera.update();
+        }
+    }
+
+    /**
+     * Gets the filtered, latency compensated target from the main limelight
+     * @return the target tracker, updated every loop
+     */
+    public TargetTracker getTargetTracker() {
+        return targetTracker;
+    }
+
+    /**
+     * Sends the current heading to every camera for MegaTag2, with a single flush for all of them
+     */
+    private void pushRobotOrientation() {
+        double yaw = drivebase.getHeading().getDegrees();
+        double yawRate = Units.radiansToDegrees(drivebase.getRobotVelocity().omegaRadiansPerSecond);
+        for (String name : cameraNames) {
+            LimelightHelpers.SetRobotOrientation_NoFlush(name, yaw, yawRate, 0, 0, 0, 0);
+        }
+        LimelightHelpers.Flush();
+    }
+
+    /**
+     * Adds this loop's measurements to the drivebase pose estimator, oldest first. Standard deviation grows with
+     * distance squared and shrinks with the number of tags. Heading is never corrected since MegaTag2 uses our gyro.
+     */
+    private void fuseMeasurements() {
+        Pose2d odometryPose = drivebase.getPose();
+        double yawRate = Units.radiansToDegrees(drivebase.getRobotVelocity().omegaRadiansPerSecond);
+        double now = Timer.getFPGATimestamp();
+
+        for (int i = 0; i < measurementCount; i++) {
+            PoseEstimateBuffer measurement = measurements[i];
+
+            double weight = 1;
+            for (VisionMeasurementFilter filter : filters) {
+                weight *= filter.score(measurement, odometryPose, yawRate, now);
+                if (weight <= 0) break;
+            }
+            if (weight <= 0) {
+                rejectedCount++;
+                continue;
+            }
+
+            double xyStdDev = Constants.VISION_XY_STD_DEV
+                    * (1 + measurement.avgTagDist * measurement.avgTagDist) / (measurement.tagCount * weight);
+            drivebase.addVisionMeasurement(measurement.toPose2d(), measurement.timestampSeconds,
+                    VecBuilder.fill(xyStdDev, xyStdDev, 9999999));
+            lastFusedTimestamp = Math.max(lastFusedTimestamp, measurement.timestampSeconds);
+        }
+    }
+
+    private void readMeasurements() {
+        measurementCount = 0;
+
+        if (listeners != null) {
+            for (int i = 0; i < listeners.length; i++) {
+                if (listeners[i].update()) {
+                    insert(listeners[i].get(), i);
+                }
+            }
+            return;
+        }
+
+        if (decodePool == null) {
+            for (int i = 0; i < queues.length; i++) {
+                insertAll(queues[i].read(), i);
+            }
+            return;
+        }
+
+        try {
+            List<Future<VisionFrameBatch>> decoded = decodePool.invokeAll(decodeTasks);
+            for (int i = 0; i < decoded.size(); i++) {
+                insertAll(decoded.get(i).get(), i);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            DriverStation.reportError("Vision decode failed: " + e.getCause(), e.getCause().getStackTrace());
+        }
+    }
+
+    private void insertAll(VisionFrameBatch batch, int camera) {
+        for (int i = 0; i < batch.poseCount; i++) {
+            insert(batch.poses[i], camera);
+        }
+    }
+
+    /** Insertion sort by timestamp, each camera is already in order so this is close to a merge */
+    private void insert(PoseEstimateBuffer frame, int camera) {
+        if (measurementCount == measurements.length) {
+            return;
+        }
+
+        int index = measurementCount++;
+        PoseEstimateBuffer slot = measurements[index];
+        while (index > 0 && measurements[index - 1].timestampSeconds > frame.timestampSeconds) {
+            measurements[index] = measurements[index - 1];
+            measurementCameras[index] = measurementCameras[index - 1];
+            index--;
+        }
+        slot.copyFrom(frame);
+        measurements[index] = slot;
+        measurementCameras[index] = camera;
+    }
+
+    /**
+     * @return number of measurements received this loop, from every camera
+     */
+    public int getMeasurementCount() {
+        return measurementCount;
+    }
+
+    /**
+     * Gets a measurement from this loop, ordered oldest first across all cameras
+     * @param index 0 to {@link #getMeasurementCount()} - 1
+     * @return the measurement, overwritten next loop
+     */
+    public PoseEstimateBuffer getMeasurement(int index) {
+        return measurements[index];
+    }
+
+    /**
+     * @param index 0 to {@link #getMeasurementCount()} - 1
+     * @return name of the camera that produced the measurement
+     */
+    public String getMeasurementCamera(int index) {
+        return cameraNames[measurementCameras[index]];
+    }
+
+    /**
+     * @return NetworkTables names of every camera
+     */
+    public String[] getCameraNames() {
+        return cameraNames;
+    }
+}
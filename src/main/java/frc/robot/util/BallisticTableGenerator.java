@@ -0,0 +1,204 @@
+package frc.robot.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Desktop tool that simulates the ball's flight with quadratic air drag and writes shooter_distance.csv and
+ * time_of_flight.csv for a grid of distances, the two tables {@link ShotSolver} reads. For each distance the flywheel
+ * speed is found by bisection so the ball comes down through the hub opening. Distances are spread across cores with
+ * fork-join.
+ *
+ * <p>Run with {@code ./gradlew generateShooterTable -Pargs="build/calibration"}. The output is a starting point,
+ * check it on the field and adjust the constants below until it matches.
+ */
+public class BallisticTableGenerator {
+    /** Ball mass (kg) */
+    public static final double BALL_MASS = 0.215;
+    /** Ball diameter (m) */
+    public static final double BALL_DIAMETER = 0.150;
+    /** Drag coefficient of a sphere */
+    public static final double DRAG_COEFFICIENT = 0.47;
+    public static final double AIR_DENSITY = 1.225;
+    public static final double GRAVITY = 9.81;
+
+    /** Launch angle above horizontal (degrees) */
+    public static final double LAUNCH_ANGLE = 60;
+    /** Height the ball leaves the shooter (m) */
+    public static final double LAUNCH_HEIGHT = 0.5;
+    /** Height of the hub opening (m) */
+    public static final double TARGET_HEIGHT = 1.83;
+    /** Ball exit speed at full flywheel output (m/s), about half the wheel surface speed */
+    public static final double MAX_EXIT_SPEED = 15;
+
+    /** Distance grid (cm) */
+    public static final double MIN_DISTANCE = 100, MAX_DISTANCE = 700, DISTANCE_STEP = 10;
+
+    private static final double TIME_STEP = 0.0005;
+    private static final double MAX_TIME = 5;
+    /** Distances per fork-join leaf */
+    private static final int LEAF_SIZE = 4;
+
+    /** k in drag acceleration = k * |v| * v */
+    private static final double DRAG_FACTOR = 0.5 * AIR_DENSITY * DRAG_COEFFICIENT
+            * Math.PI * BALL_DIAMETER * BALL_DIAMETER / 4 / BALL_MASS;
+
+    private BallisticTableGenerator() {}
+
+    public static void main(String[] args) throws IOException {
+        File directory = new File(args.length > 0 ? args[0] : "build/calibration");
+        directory.mkdirs();
+
+        int count = (int) Math.round((MAX_DISTANCE - MIN_DISTANCE) / DISTANCE_STEP) + 1;
+        double[] distances = new double[count];
+        double[] speeds = new double[count];
+        double[] flightTimes = new double[count];
+        for (int i = 0; i < count; i++) {
+            distances[i] = MIN_DISTANCE + DISTANCE_STEP * i;
+        }
+
+        ForkJoinPool.commonPool().invoke(new SolveRange(distances, speeds, flightTimes, 0, count));
+
+        try (PrintStream speedOut = new PrintStream(new File(directory, "shooter_distance.csv"), "UTF-8");
+                PrintStream timeOut = new PrintStream(new File(directory, "time_of_flight.csv"), "UTF-8")) {
+            speedOut.println("# Generated by BallisticTableGenerator, launch angle " + LAUNCH_ANGLE + " deg");
+            speedOut.println("distance_cm,speed");
+            timeOut.println("# Generated by BallisticTableGenerator, launch angle " + LAUNCH_ANGLE + " deg");
+            timeOut.println("distance_cm,seconds");
+
+            int written = 0;
+            for (int i = 0; i < count; i++) {
+                if (Double.isNaN(speeds[i])) continue;
+                speedOut.println(String.format(Locale.ROOT, "%.1f,%.4f", distances[i], speeds[i]));
+                timeOut.println(String.format(Locale.ROOT, "%.1f,%.4f", distances[i], flightTimes[i]));
+                written++;
+            }
+            System.err.println(written + " of " + count + " distances reachable, written to " + directory);
+        }
+    }
+
+    /** Solves a slice of the distance grid, splitting it in half until it is small */
+    private static class SolveRange extends RecursiveAction {
+        private final double[] distances, speeds, flightTimes;
+        private final int start, end;
+
+        SolveRange(double[] distances, double[] speeds, double[] flightTimes, int start, int end) {
+            this.distances = distances;
+            this.speeds = speeds;
+            this.flightTimes = flightTimes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= LEAF_SIZE) {
+                double[] result = new double[2];
+                for (int i = start; i < end; i++) {
+                    solve(distances[i] / 100, result);
+                    speeds[i] = result[0];
+                    flightTimes[i] = result[1];
+                }
+                return;
+            }
+
+            int middle = (start + end) >>> 1;
+            invokeAll(new SolveRange(distances, speeds, flightTimes, start, middle),
+                    new SolveRange(distances, speeds, flightTimes, middle, end));
+        }
+    }
+
+    /**
+     * Finds the flywheel output that puts the ball through the target height on the way down
+     * @param distance horizontal distance to the hub (m)
+     * @param result set to { flywheel output 0 to 1, time of flight }, NaN if out of range
+     */
+    static void solve(double distance, double[] result) {
+        double low = 0.05 * MAX_EXIT_SPEED;
+        double high = MAX_EXIT_SPEED;
+        double[] flight = new double[3];
+
+        simulate(high, distance, flight);
+        if (!(flight[0] >= TARGET_HEIGHT)) {
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return;
+        }
+
+        // Height at the hub grows with exit speed, find where it crosses the opening
+        for (int i = 0; i < 50; i++) {
+            double middle = (low + high) / 2;
+            simulate(middle, distance, flight);
+            if (flight[0] >= TARGET_HEIGHT) {
+                high = middle;
+            } else {
+                low = middle;
+            }
+        }
+
+        simulate(high, distance, flight);
+        // Still rising means the ball would hit the lip from below
+        boolean descending = flight[2] < 0;
+        result[0] = descending ? high / MAX_EXIT_SPEED : Double.NaN;
+        result[1] = descending ? flight[1] : Double.NaN;
+    }
+
+    /**
+     * Flies a ball until it reaches the distance or falls to the floor. Velocity is stepped with RK4 since drag only
+     * depends on velocity, position with the trapezoid rule on the old and new velocity.
+     * @param exitSpeed launch speed (m/s)
+     * @param distance horizontal distance (m)
+     * @param flight set to { height at distance (NaN if never reached), time, vertical velocity }
+     */
+    static void simulate(double exitSpeed, double distance, double[] flight) {
+        double angle = Math.toRadians(LAUNCH_ANGLE);
+        double x = 0, y = LAUNCH_HEIGHT;
+        double vx = exitSpeed * Math.cos(angle), vy = exitSpeed * Math.sin(angle);
+        double t = 0;
+
+        while (t < MAX_TIME && y >= 0) {
+            double k1vx = ax(vx, vy), k1vy = ay(vx, vy);
+            double k2vx = ax(vx + k1vx * TIME_STEP / 2, vy + k1vy * TIME_STEP / 2);
+            double k2vy = ay(vx + k1vx * TIME_STEP / 2, vy + k1vy * TIME_STEP / 2);
+            double k3vx = ax(vx + k2vx * TIME_STEP / 2, vy + k2vy * TIME_STEP / 2);
+            double k3vy = ay(vx + k2vx * TIME_STEP / 2, vy + k2vy * TIME_STEP / 2);
+            double k4vx = ax(vx + k3vx * TIME_STEP, vy + k3vy * TIME_STEP);
+            double k4vy = ay(vx + k3vx * TIME_STEP, vy + k3vy * TIME_STEP);
+
+            double nextVx = vx + TIME_STEP / 6 * (k1vx + 2 * k2vx + 2 * k3vx + k4vx);
+            double nextVy = vy + TIME_STEP / 6 * (k1vy + 2 * k2vy + 2 * k3vy + k4vy);
+            double nextX = x + TIME_STEP / 2 * (vx + nextVx);
+            double nextY = y + TIME_STEP / 2 * (vy + nextVy);
+
+            if (nextX >= distance) {
+                double f = (distance - x) / (nextX - x);
+                flight[0] = y + (nextY - y) * f;
+                flight[1] = t + TIME_STEP * f;
+                flight[2] = vy + (nextVy - vy) * f;
+                return;
+            }
+
+            x = nextX;
+            y = nextY;
+            vx = nextVx;
+            vy = nextVy;
+            t += TIME_STEP;
+        }
+
+        flight[0] = Double.NaN;
+        flight[1] = t;
+        flight[2] = vy;
+    }
+
+    private static double ax(double vx, double vy) {
+        return -DRAG_FACTOR * Math.hypot(vx, vy) * vx;
+    }
+
+    private static double ay(double vx, double vy) {
+        return -GRAVITY - DRAG_FACTOR * Math.hypot(vx, vy) * vy;
+    }
+}
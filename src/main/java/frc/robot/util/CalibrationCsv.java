@@ -0,0 +1,108 @@
+package frc.robot.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import frc.robot.util.math.InterpolationTable;
+import frc.robot.util.math.InterpolationTable2D;
+
+/**
+ * Reads calibration tables from CSV files. Blank lines and lines starting with # are skipped, and so is a header row
+ * whose first cell isn't a number.
+ *
+ * <p>1D tables are two columns, key then value. 2D tables start with a row of y keys (the first cell is ignored),
+ * then each row is an x key followed by one value per y key.
+ */
+public class CalibrationCsv {
+    private CalibrationCsv() {}
+
+    /**
+     * @param file the csv file
+     * @return the table
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file isn't a valid table
+     */
+    public static InterpolationTable readTable(Path file) throws IOException {
+        List<double[]> rows = readRows(file, false);
+        double[] keys = new double[rows.size()];
+        double[] values = new double[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            double[] row = rows.get(i);
+            if (row.length != 2) {
+                throw new IllegalArgumentException(file.getFileName() + " row " + (i + 1) + " needs 2 columns");
+            }
+            keys[i] = row[0];
+            values[i] = row[1];
+        }
+        return new InterpolationTable(keys, values);
+    }
+
+    /**
+     * @param file the csv file
+     * @return the table
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file isn't a valid table
+     */
+    public static InterpolationTable2D readTable2D(Path file) throws IOException {
+        List<double[]> rows = readRows(file, true);
+        if (rows.size() < 2) {
+            throw new IllegalArgumentException(file.getFileName() + " needs a key row and at least one value row");
+        }
+
+        double[] header = rows.get(0);
+        double[] yKeys = new double[header.length - 1];
+        System.arraycopy(header, 1, yKeys, 0, yKeys.length);
+
+        double[] xKeys = new double[rows.size() - 1];
+        double[][] values = new double[xKeys.length][];
+        for (int i = 0; i < xKeys.length; i++) {
+            double[] row = rows.get(i + 1);
+            if (row.length != yKeys.length + 1) {
+                throw new IllegalArgumentException(file.getFileName() + " row " + (i + 2) + " needs "
+                        + (yKeys.length + 1) + " columns");
+            }
+            xKeys[i] = row[0];
+            values[i] = new double[yKeys.length];
+            System.arraycopy(row, 1, values[i], 0, yKeys.length);
+        }
+        return new InterpolationTable2D(xKeys, yKeys, values);
+    }
+
+    /**
+     * @param keyRow if the first row is a row of keys with a label in its first cell
+     */
+    private static List<double[]> readRows(Path file, boolean keyRow) throws IOException {
+        List<double[]> rows = new ArrayList<>();
+        boolean first = true;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            String[] cells = line.split(",");
+            double[] row = new double[cells.length];
+            try {
+                for (int i = 0; i < cells.length; i++) {
+                    // The key row's first cell is just a label
+                    row[i] = first && keyRow && i == 0 ? Double.NaN : Double.parseDouble(cells[i].trim());
+                }
+            } catch (NumberFormatException e) {
+                if (first && !keyRow) {
+                    first = false;
+                    continue;
+                }
+                throw new IllegalArgumentException(file.getFileName() + ": bad number in \"" + line + "\"");
+            }
+            first = false;
+            rows.add(row);
+        }
+
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException(file.getFileName() + " is empty");
+        }
+        return rows;
+    }
+}
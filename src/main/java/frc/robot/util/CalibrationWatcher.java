@@ -0,0 +1,108 @@
+package frc.robot.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+
+/**
+ * Loads calibration files from the deploy directory and reloads them when they change, on a background thread.
+ * Loaders should build the whole new table and then swap it in with a single volatile write, so the control loop
+ * never waits on a file or sees a half built table. A file that fails to load keeps the previous table.
+ */
+public class CalibrationWatcher {
+    /** Where calibration files live, src/main/deploy/calibration in the project */
+    public static final File DIRECTORY = new File(Filesystem.getDeployDirectory(), "calibration");
+
+    /** Loads a calibration file */
+    @FunctionalInterface
+    public interface Loader {
+        void load(Path file) throws IOException;
+    }
+
+    private static final Map<String, Loader> loaders = new ConcurrentHashMap<>();
+    private static Thread thread;
+
+    private CalibrationWatcher() {}
+
+    /**
+     * Loads a file now, then again every time it changes once {@link #start()} has been called
+     * @param fileName name of the file in {@link #DIRECTORY}
+     * @param loader loads the file and swaps in the new table
+     * @return if the file loaded, false keeps whatever table was there before
+     */
+    public static boolean watch(String fileName, Loader loader) {
+        loaders.put(fileName, loader);
+        return load(fileName, loader);
+    }
+
+    private static boolean load(String fileName, Loader loader) {
+        Path file = DIRECTORY.toPath().resolve(fileName);
+        if (!file.toFile().isFile()) {
+            DriverStation.reportWarning("Calibration file " + fileName + " not found, using defaults", false);
+            return false;
+        }
+
+        try {
+            loader.load(file);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            DriverStation.reportWarning("Calibration " + fileName + " not loaded: " + e.getMessage(), false);
+            return false;
+        }
+    }
+
+    /**
+     * Starts watching for changes, does nothing if already started or the directory doesn't exist
+     */
+    public static synchronized void start() {
+        if (thread != null || !DIRECTORY.isDirectory()) return;
+
+        WatchService watchService;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            DIRECTORY.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            DriverStation.reportWarning("Calibration hot reload unavailable: " + e.getMessage(), false);
+            return;
+        }
+
+        thread = new Thread(() -> run(watchService), "CalibrationWatcher");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    private static void run(WatchService watchService) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                // Editors often write a file in several steps, let them finish
+                Thread.sleep(100);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) continue;
+
+                    String fileName = event.context().toString();
+                    Loader loader = loaders.get(fileName);
+                    if (loader != null) {
+                        load(fileName, loader);
+                    }
+                }
+                if (!key.reset()) return;
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+}
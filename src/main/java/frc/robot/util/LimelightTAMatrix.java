@@ -1,21 +1,21 @@
 package frc.robot.util;
 
-import edu.wpi.first.math.interpolation.InterpolatingDoubleTreeMap;
+import frc.robot.util.math.InterpolationTable;
 
 public class LimelightTAMatrix {
-    private static InterpolatingDoubleTreeMap cameraMap = new InterpolatingDoubleTreeMap();
+    // Volatile so a reload from CalibrationWatcher is seen as one complete swap
+    private static volatile InterpolationTable cameraMap;
 
     /**
-     * Initalizes the matrices for use. Call this on robot start.
+     * Initalizes the matrices for use, then loads limelight_ta.csv from src/main/deploy/calibration if it exists.
+     * Call this on robot start.
      */
     public static void InitializeMatrix() {
-        cameraMap.put(72.0, 19.25); // TA - Centimeters
-        cameraMap.put(29.5, 25.0); 
-        cameraMap.put(8.95, 50.0);
-        cameraMap.put(4.5, 75.0);
-        cameraMap.put(2.55, 100.0);
-        cameraMap.put(1.7, 125.0);
-        cameraMap.put(1.18, 150.0);
+        cameraMap = new InterpolationTable(
+            new double[] { 72.0,  29.5, 8.95, 4.5,  2.55,  1.7,   1.18  }, // TA
+            new double[] { 19.25, 25.0, 50.0, 75.0, 100.0, 125.0, 150.0 }); // Centimeters
+
+        CalibrationWatcher.watch("limelight_ta.csv", file -> cameraMap = CalibrationCsv.readTable(file));
     }
 
     /**
@@ -32,8 +32,8 @@ public class LimelightTAMatrix {
     Usage:
 
     if (LimelightHelpers.getTV("limelight")) {
-        ta = LimelightTAMatrix.get(LimelightHelpers.getTA("limelight")); 
+        ta = LimelightTAMatrix.get(LimelightHelpers.getTA("limelight"));
     }
-    
+
     */
 }
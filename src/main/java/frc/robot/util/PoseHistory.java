@@ -0,0 +1,169 @@
+package frc.robot.util;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * Fixed size ring buffer of timestamped odometry samples (t, x, y, theta, vx, vy, omega), stored in primitive arrays
+ * so adding a sample never allocates. Answers "where was the robot when this frame was captured" with an
+ * interpolated O(log n) lookup.
+ *
+ * <p>Theta is stored unwrapped (it keeps counting past +-pi) so interpolation never goes the long way around.
+ */
+public class PoseHistory {
+    private final double[] t, x, y, theta, vx, vy, omega;
+    private final int capacity;
+    private int start = 0;
+    private int size = 0;
+
+    /** A reusable lookup result */
+    public static class Sample {
+        public double timestamp, x, y, theta, vx, vy, omega;
+
+        /**
+         * @return the sample as a pose, this allocates
+         */
+        public Pose2d toPose2d() {
+            return new Pose2d(x, y, new Rotation2d(theta));
+        }
+    }
+
+    /**
+     * @param capacity number of samples kept, 50 is one second at the default loop rate
+     */
+    public PoseHistory(int capacity) {
+        this.capacity = capacity;
+        t = new double[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        theta = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        omega = new double[capacity];
+    }
+
+    /**
+     * Adds a sample. Samples that aren't newer than the last one are ignored.
+     * @param timestamp FPGA time in seconds
+     * @param x field x in meters
+     * @param y field y in meters
+     * @param theta heading in radians
+     * @param vx field x velocity in meters per second
+     * @param vy field y velocity in meters per second
+     * @param omega angular velocity in radians per second
+     */
+    public void add(double timestamp, double x, double y, double theta, double vx, double vy, double omega) {
+        int index;
+        if (size > 0) {
+            int last = physical(size - 1);
+            if (timestamp <= t[last]) return;
+            // Unwrap so theta stays continuous with the previous sample
+            theta = this.theta[last] + MathUtil.angleModulus(theta - this.theta[last]);
+        }
+
+        if (size < capacity) {
+            index = physical(size);
+            size++;
+        } else {
+            index = start;
+            start = (start + 1) % capacity;
+        }
+
+        t[index] = timestamp;
+        this.x[index] = x;
+        this.y[index] = y;
+        this.theta[index] = theta;
+        this.vx[index] = vx;
+        this.vy[index] = vy;
+        this.omega[index] = omega;
+    }
+
+    /**
+     * Interpolates the robot state at a time. Times before the oldest sample clamp to it, times after the newest
+     * sample are extrapolated with the newest velocity.
+     * @param timestamp FPGA time in seconds
+     * @param out filled with the result
+     * @return false if the history is empty
+     */
+    public boolean sample(double timestamp, Sample out) {
+        if (size == 0) return false;
+
+        int newest = physical(size - 1);
+        if (timestamp >= t[newest]) {
+            double dt = timestamp - t[newest];
+            out.timestamp = timestamp;
+            out.x = x[newest] + vx[newest] * dt;
+            out.y = y[newest] + vy[newest] * dt;
+            out.theta = theta[newest] + omega[newest] * dt;
+            out.vx = vx[newest];
+            out.vy = vy[newest];
+            out.omega = omega[newest];
+            return true;
+        }
+
+        int oldest = physical(0);
+        if (timestamp <= t[oldest]) {
+            copy(oldest, out);
+            out.timestamp = timestamp;
+            return true;
+        }
+
+        // Binary search for the last sample at or before timestamp
+        int low = 0, high = size - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (t[physical(mid)] <= timestamp) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+
+        int a = physical(low), b = physical(high);
+        double f = (timestamp - t[a]) / (t[b] - t[a]);
+        out.timestamp = timestamp;
+        out.x = x[a] + (x[b] - x[a]) * f;
+        out.y = y[a] + (y[b] - y[a]) * f;
+        out.theta = theta[a] + (theta[b] - theta[a]) * f;
+        out.vx = vx[a] + (vx[b] - vx[a]) * f;
+        out.vy = vy[a] + (vy[b] - vy[a]) * f;
+        out.omega = omega[a] + (omega[b] - omega[a]) * f;
+        return true;
+    }
+
+    /**
+     * Gets the newest sample
+     * @param out filled with the result
+     * @return false if the history is empty
+     */
+    public boolean latest(Sample out) {
+        if (size == 0) return false;
+        copy(physical(size - 1), out);
+        return true;
+    }
+
+    /** Forgets every sample, call after resetting odometry */
+    public void clear() {
+        start = 0;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void copy(int index, Sample out) {
+        out.timestamp = t[index];
+        out.x = x[index];
+        out.y = y[index];
+        out.theta = theta[index];
+        out.vx = vx[index];
+        out.vy = vy[index];
+        out.omega = omega[index];
+    }
+
+    private int physical(int logical) {
+        return (start + logical) % capacity;
+    }
+}
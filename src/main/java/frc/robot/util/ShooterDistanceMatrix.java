@@ -1,16 +1,70 @@
 package frc.robot.util;
 
-import edu.wpi.first.math.interpolation.InterpolatingDoubleTreeMap;
+import frc.robot.util.math.InterpolationTable;
+import frc.robot.util.math.InterpolationTable2D;
 
 public class ShooterDistanceMatrix {
-    private static InterpolatingDoubleTreeMap matrix = new InterpolatingDoubleTreeMap();
+    // Volatile so a reload from CalibrationWatcher is seen as one complete swap
+    private static volatile InterpolationTable matrix;
+    private static volatile InterpolationTable2D movingMatrix;
+    private static volatile InterpolationTable timeOfFlight;
 
+    /**
+     * Initalizes the matrices with the defaults below, then loads any calibration files from
+     * src/main/deploy/calibration. Call this on robot start.
+     */
     public static void InitializeMatrix() {
-        matrix.put(350.35, 0.6); // Untested
-        matrix.put(365.82, 0.7); // ~6ft at 0.7 speed (as of shooter prototype #1)
+        matrix = new InterpolationTable(
+            new double[] { 350.35, 365.82 }, // Centimeters
+            new double[] { 0.6,    0.7    }); // Untested, ~6ft at 0.7 speed (as of shooter prototype #1)
+
+        // Trim for shots taken while driving, on top of the virtual target from ShotSolver. The solver already leads
+        // the shot, so this starts flat and only the difference from the 0 m/s column is used.
+        movingMatrix = new InterpolationTable2D(
+            new double[] { 350.35, 365.82 }, // Centimeters
+            new double[] { -2, -1, 0, 1, 2 }, // Meters per second toward the hub
+            new double[][] {
+                { 0.6, 0.6, 0.6, 0.6, 0.6 },
+                { 0.7, 0.7, 0.7, 0.7, 0.7 }
+            });
+
+        timeOfFlight = new InterpolationTable(
+            new double[] { 100.0, 350.0, 600.0 }, // Centimeters
+            new double[] { 0.6,   1.0,   1.3   }); // Seconds, untested estimate
+
+        CalibrationWatcher.watch("shooter_distance.csv", file -> matrix = CalibrationCsv.readTable(file));
+        CalibrationWatcher.watch("shooter_moving.csv", file -> movingMatrix = CalibrationCsv.readTable2D(file));
+        CalibrationWatcher.watch("time_of_flight.csv", file -> timeOfFlight = CalibrationCsv.readTable(file));
     }
 
+    /**
+     * Flywheel speed for a stationary shot. Shots taken while driving use {@link #get(double, double)} at the
+     * distance to the virtual target from {@link ShotSolver} instead.
+     * @param val distance to the hub in centimeters
+     * @return flywheel speed
+     */
     public static double get(double val) {
         return matrix.get(val);
     }
-}
\ No newline at end of file
+
+    /**
+     * Flywheel speed for a shot taken while driving: the stationary speed plus the measured trim for the velocity,
+     * which is the moving table's difference from its 0 m/s column. Equal to {@link #get(double)} when stopped.
+     * @param distance distance to the virtual target in centimeters
+     * @param radialVelocity robot velocity toward the hub in meters per second, negative when driving away
+     * @return flywheel speed
+     */
+    public static double get(double distance, double radialVelocity) {
+        InterpolationTable2D moving = movingMatrix;
+        return matrix.get(distance) + moving.get(distance, radialVelocity) - moving.get(distance, 0);
+    }
+
+    /**
+     * Time from the ball leaving the shooter to reaching the hub
+     * @param distance distance to the hub in centimeters
+     * @return time of flight in seconds
+     */
+    public static double getTimeOfFlight(double distance) {
+        return timeOfFlight.get(distance);
+    }
+}
@@ -0,0 +1,102 @@
+package frc.robot.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Format of the shot log written by {@link ShotLogger}, and a reader for it. Has no WPILib dependencies so it can be
+ * used on the desktop by {@link ShotTableFitter}.
+ *
+ * <p>The file is append only (big endian). Each time the robot opens it, a {@link #RECORD_SESSION} is written: int
+ * {@link #MAGIC}, short {@link #VERSION}, long wall clock millis. A {@link #RECORD_SHOT} is int id, long FPGA micros,
+ * then doubles distance (cm), flywheel setpoint, measured flywheel velocity and robot velocity toward the hub (m/s).
+ * A {@link #RECORD_OUTCOME} is int id and a boolean for make or miss, written later when the operator presses the
+ * button. Ids restart every session.
+ */
+public class ShotLog {
+    public static final int MAGIC = 0x53484F54; // "SHOT"
+    public static final short VERSION = 1;
+
+    public static final byte RECORD_SESSION = 0;
+    public static final byte RECORD_SHOT = 1;
+    public static final byte RECORD_OUTCOME = 2;
+
+    /** A logged shot */
+    public static class Shot {
+        public long timestampMicros;
+        public double distance;
+        public double setpoint;
+        public double measuredVelocity;
+        public double radialVelocity;
+        /** Null until the operator marks it */
+        public Boolean made;
+    }
+
+    private ShotLog() {}
+
+    /**
+     * Reads every shot in a log, with its outcome if one was marked
+     * @param file the log
+     * @return shots in the order they were taken
+     * @throws IOException if the file can't be read or isn't a shot log
+     */
+    public static List<Shot> read(File file) throws IOException {
+        List<Shot> shots = new ArrayList<>();
+        Map<Integer, Shot> session = new HashMap<>();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                byte record;
+                try {
+                    record = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                try {
+                    switch (record) {
+                        case RECORD_SESSION:
+                            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                                throw new IOException("not a shot log: " + file);
+                            }
+                            in.readLong();
+                            session.clear();
+                            break;
+                        case RECORD_SHOT:
+                            int id = in.readInt();
+                            Shot shot = new Shot();
+                            shot.timestampMicros = in.readLong();
+                            shot.distance = in.readDouble();
+                            shot.setpoint = in.readDouble();
+                            shot.measuredVelocity = in.readDouble();
+                            shot.radialVelocity = in.readDouble();
+                            session.put(id, shot);
+                            shots.add(shot);
+                            break;
+                        case RECORD_OUTCOME:
+                            Shot marked = session.get(in.readInt());
+                            boolean made = in.readBoolean();
+                            if (marked != null) {
+                                marked.made = made;
+                            }
+                            break;
+                        default:
+                            throw new IOException("unknown record " + record + " in " + file);
+                    }
+                } catch (EOFException e) {
+                    // Robot lost power mid write, keep everything before it
+                    break;
+                }
+            }
+        }
+        return shots;
+    }
+}
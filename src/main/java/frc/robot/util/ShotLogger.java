@@ -0,0 +1,137 @@
+package frc.robot.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Appends shots and their outcomes to a {@link ShotLog} file. Writes happen on a low priority background thread so a
+ * slow flash write never holds up the control loop. If the queue is full or the file can't be written, records are
+ * dropped rather than waiting.
+ */
+public class ShotLogger {
+    /** Default log location, survives redeploys */
+    public static final File DEFAULT_FILE = new File(Filesystem.getOperatingDirectory(), "shots.bin");
+
+    private final BlockingQueue<byte[]> pending = new ArrayBlockingQueue<>(64);
+    private final DataOutputStream out;
+    private int nextId = 0;
+    private int lastShot = -1;
+
+    /**
+     * Opens the log for appending and starts the writer thread
+     * @param file the log file
+     */
+    public ShotLogger(File file) {
+        DataOutputStream opened = null;
+        try {
+            opened = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        } catch (IOException e) {
+            DriverStation.reportWarning("Shot log disabled: " + e.getMessage(), false);
+        }
+        out = opened;
+        if (out == null) return;
+
+        Thread thread = new Thread(this::run, "ShotLogger");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+
+        RecordBuffer session = new RecordBuffer(15);
+        session.writeByte(ShotLog.RECORD_SESSION);
+        session.writeInt(ShotLog.MAGIC);
+        session.writeShort(ShotLog.VERSION);
+        session.writeLong(System.currentTimeMillis());
+        pending.offer(session.bytes);
+    }
+
+    /**
+     * Logs a shot, its outcome can be marked later with {@link #markLastShot(boolean)}
+     * @param distance distance to the hub in centimeters, NaN if not known
+     * @param setpoint flywheel setpoint
+     * @param measuredVelocity measured flywheel velocity at release
+     * @param radialVelocity robot velocity toward the hub in meters per second
+     */
+    public void logShot(double distance, double setpoint, double measuredVelocity, double radialVelocity) {
+        lastShot = nextId++;
+        RecordBuffer shot = new RecordBuffer(45);
+        shot.writeByte(ShotLog.RECORD_SHOT);
+        shot.writeInt(lastShot);
+        shot.writeLong(RobotController.getFPGATime());
+        shot.writeDouble(distance);
+        shot.writeDouble(setpoint);
+        shot.writeDouble(measuredVelocity);
+        shot.writeDouble(radialVelocity);
+        pending.offer(shot.bytes);
+    }
+
+    /**
+     * Marks the most recent shot as made or missed, does nothing if no shot has been logged
+     * @param made if it went in
+     */
+    public void markLastShot(boolean made) {
+        if (lastShot < 0) return;
+        RecordBuffer outcome = new RecordBuffer(6);
+        outcome.writeByte(ShotLog.RECORD_OUTCOME);
+        outcome.writeInt(lastShot);
+        outcome.writeByte(made ? 1 : 0);
+        pending.offer(outcome.bytes);
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                byte[] record = pending.take();
+                out.write(record);
+                if (pending.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            DriverStation.reportWarning("Shot log stopped: " + e.getMessage(), false);
+        }
+    }
+
+    /** Fixed size big endian record, same byte order as DataOutputStream */
+    private static class RecordBuffer {
+        final byte[] bytes;
+        int position;
+
+        RecordBuffer(int size) {
+            bytes = new byte[size];
+        }
+
+        void writeByte(int v) {
+            bytes[position++] = (byte) v;
+        }
+
+        void writeShort(int v) {
+            writeByte(v >>> 8);
+            writeByte(v);
+        }
+
+        void writeInt(int v) {
+            writeShort(v >>> 16);
+            writeShort(v);
+        }
+
+        void writeLong(long v) {
+            writeInt((int) (v >>> 32));
+            writeInt((int) v);
+        }
+
+        void writeDouble(double v) {
+            writeLong(Double.doubleToLongBits(v));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package frc.robot.util;
+
+import frc.robot.util.math.MathUtils;
+
+/**
+ * Aims shots taken while driving. The ball keeps the robot's velocity after it leaves, so we aim at a virtual target:
+ * the hub moved back by robot velocity times time of flight. Time of flight depends on the distance to that virtual
+ * target, so it is solved iteratively, starting from a closed form guess that assumes constant ball speed.
+ *
+ * <p>Doesn't allocate, results are read back from the getters. Distances are in centimeters to match
+ * {@link ShooterDistanceMatrix}, positions and velocities in meters.
+ */
+public class ShotSolver {
+    /** Iterations per solve, the time of flight table is smooth so this is plenty */
+    public static final int MAX_ITERATIONS = 6;
+    /** Stop iterating once the time of flight changes less than this (seconds) */
+    public static final double TOLERANCE = 0.001;
+
+    private double headingRadians;
+    private double virtualDistance;
+    private double timeOfFlight;
+    private double flywheelSpeed;
+    private double radialVelocity;
+    private int iterations;
+    private boolean converged;
+
+    /**
+     * Solves for a shot from the given robot state
+     * @param robotX robot field x
+     * @param robotY robot field y
+     * @param velocityX robot field relative x velocity
+     * @param velocityY robot field relative y velocity
+     * @param hubX hub center field x
+     * @param hubY hub center field y
+     * @return if the solution converged, the results are still the best guess when it didn't
+     */
+    public boolean solve(double robotX, double robotY, double velocityX, double velocityY, double hubX, double hubY) {
+        double rx = hubX - robotX;
+        double ry = hubY - robotY;
+        double range = Math.hypot(rx, ry) * 100;
+        radialVelocity = range < 1e-4 ? 0 : (velocityX * rx + velocityY * ry) / (range / 100);
+
+        // Guess: ball covers |r - v t| at the average speed it would have for a stationary shot from here
+        double tof = ShooterDistanceMatrix.getTimeOfFlight(range);
+        double ballSpeed = range / 100 / tof;
+        double guess = MathUtils.smallestPositiveRoot(
+                velocityX * velocityX + velocityY * velocityY - ballSpeed * ballSpeed,
+                -2 * (rx * velocityX + ry * velocityY),
+                rx * rx + ry * ry);
+        if (!Double.isNaN(guess)) {
+            tof = guess;
+        }
+
+        converged = false;
+        double targetX = rx, targetY = ry;
+        for (iterations = 1; iterations <= MAX_ITERATIONS; iterations++) {
+            targetX = rx - velocityX * tof;
+            targetY = ry - velocityY * tof;
+            virtualDistance = Math.hypot(targetX, targetY) * 100;
+            double next = ShooterDistanceMatrix.getTimeOfFlight(virtualDistance);
+            boolean done = Math.abs(next - tof) < TOLERANCE;
+            tof = next;
+            if (done) {
+                converged = true;
+                break;
+            }
+        }
+        iterations = Math.min(iterations, MAX_ITERATIONS);
+
+        timeOfFlight = tof;
+        headingRadians = Math.atan2(targetY, targetX);
+        // The virtual target covers most of the robot's motion, the moving table trims what's left
+        flywheelSpeed = ShooterDistanceMatrix.get(virtualDistance, radialVelocity);
+        return converged;
+    }
+
+    /**
+     * @return field relative heading to point the shooter at, radians
+     */
+    public double getHeadingRadians() {
+        return headingRadians;
+    }
+
+    /**
+     * @return distance to the virtual target in centimeters
+     */
+    public double getVirtualDistance() {
+        return virtualDistance;
+    }
+
+    /**
+     * @return time of flight of the solved shot in seconds
+     */
+    public double getTimeOfFlight() {
+        return timeOfFlight;
+    }
+
+    /**
+     * @return flywheel speed for the virtual target
+     */
+    public double getFlywheelSpeed() {
+        return flywheelSpeed;
+    }
+
+    /**
+     * @return robot velocity toward the hub in the last solve, meters per second, negative when driving away
+     */
+    public double getRadialVelocity() {
+        return radialVelocity;
+    }
+
+    /**
+     * @return iterations the last solve took
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return if the last solve converged
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+}
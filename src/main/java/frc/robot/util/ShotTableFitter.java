@@ -0,0 +1,158 @@
+package frc.robot.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Desktop tool that turns a {@link ShotLog} into a shooter_distance.csv calibration file, the table the shooter reads
+ * at the shot solver's virtual target distance. Made shots are grouped into distance bins, each bin's setpoints are
+ * averaged, and the averages are made monotone (farther never needs less flywheel) with pool adjacent violators,
+ * weighted by shot count. Misses and unmarked shots are skipped since a miss doesn't say if the shot was long or short.
+ * So are shots taken while driving, whose setpoint was for a different distance, and shots without a confident
+ * distance.
+ *
+ * <p>Run with {@code ./gradlew fitShotTable -Pargs="shots.bin shooter_distance.csv 25"}, the output and bin width
+ * (cm) are optional. Copy the output to src/main/deploy/calibration.
+ */
+public class ShotTableFitter {
+    public static final double DEFAULT_BIN_WIDTH = 25;
+    /** Shots driving toward or away from the hub faster than this are skipped (meters per second) */
+    public static final double MAX_RADIAL_VELOCITY = 0.25;
+
+    private ShotTableFitter() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: ShotTableFitter <shots.bin> [output.csv] [bin width cm]");
+            System.exit(1);
+        }
+
+        List<ShotLog.Shot> shots = ShotLog.read(new File(args[0]));
+        double binWidth = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_BIN_WIDTH;
+
+        List<ShotLog.Shot> made = new ArrayList<>();
+        int madeCount = 0;
+        for (ShotLog.Shot shot : shots) {
+            if (!Boolean.TRUE.equals(shot.made)) continue;
+            madeCount++;
+            if (isStationary(shot)) {
+                made.add(shot);
+            }
+        }
+        System.err.println(shots.size() + " shots, " + madeCount + " made, " + made.size() + " made while stationary");
+        if (made.isEmpty()) {
+            System.exit(1);
+        }
+
+        double[][] table = fit(made, binWidth);
+        if (args.length > 1) {
+            try (PrintStream out = new PrintStream(args[1], "UTF-8")) {
+                write(table, out);
+            }
+        } else {
+            write(table, System.out);
+        }
+    }
+
+    /**
+     * @param shot a logged shot
+     * @return if the shot had a confident distance and wasn't driving toward or away from the hub
+     */
+    static boolean isStationary(ShotLog.Shot shot) {
+        // NaN distance means the shooter had no confident distance, NaN velocity fails the comparison too
+        return shot.distance > 0 && Math.abs(shot.radialVelocity) < MAX_RADIAL_VELOCITY;
+    }
+
+    /**
+     * Fits a monotone distance to setpoint table
+     * @param shots made shots with a distance
+     * @param binWidth width of each distance bin in centimeters
+     * @return table[0] distances and table[1] setpoints, one per non empty bin
+     */
+    public static double[][] fit(List<ShotLog.Shot> shots, double binWidth) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (ShotLog.Shot shot : shots) {
+            min = Math.min(min, shot.distance);
+            max = Math.max(max, shot.distance);
+        }
+
+        int bins = (int) ((max - min) / binWidth) + 1;
+        double[] distanceSum = new double[bins];
+        double[] setpointSum = new double[bins];
+        int[] counts = new int[bins];
+        for (ShotLog.Shot shot : shots) {
+            int bin = (int) ((shot.distance - min) / binWidth);
+            distanceSum[bin] += shot.distance;
+            setpointSum[bin] += shot.setpoint;
+            counts[bin]++;
+        }
+
+        int n = 0;
+        double[] distances = new double[bins];
+        double[] setpoints = new double[bins];
+        double[] weights = new double[bins];
+        for (int i = 0; i < bins; i++) {
+            if (counts[i] == 0) continue;
+            distances[n] = distanceSum[i] / counts[i];
+            setpoints[n] = setpointSum[i] / counts[i];
+            weights[n] = counts[i];
+            n++;
+        }
+
+        poolAdjacentViolators(setpoints, weights, n);
+
+        double[][] table = new double[2][n];
+        System.arraycopy(distances, 0, table[0], 0, n);
+        System.arraycopy(setpoints, 0, table[1], 0, n);
+        return table;
+    }
+
+    /**
+     * Replaces values with the closest non decreasing sequence in weighted least squares
+     * @param values values, overwritten with the fit
+     * @param weights weight of each value
+     * @param n number of values to use
+     */
+    static void poolAdjacentViolators(double[] values, double[] weights, int n) {
+        // Blocks are kept as a stack of (mean, weight, size)
+        double[] mean = new double[n];
+        double[] weight = new double[n];
+        int[] size = new int[n];
+        int blocks = 0;
+
+        for (int i = 0; i < n; i++) {
+            mean[blocks] = values[i];
+            weight[blocks] = weights[i];
+            size[blocks] = 1;
+            blocks++;
+
+            while (blocks > 1 && mean[blocks - 2] > mean[blocks - 1]) {
+                double w = weight[blocks - 2] + weight[blocks - 1];
+                mean[blocks - 2] = (mean[blocks - 2] * weight[blocks - 2] + mean[blocks - 1] * weight[blocks - 1]) / w;
+                weight[blocks - 2] = w;
+                size[blocks - 2] += size[blocks - 1];
+                blocks--;
+            }
+        }
+
+        int index = 0;
+        for (int b = 0; b < blocks; b++) {
+            for (int i = 0; i < size[b]; i++) {
+                values[index++] = mean[b];
+            }
+        }
+    }
+
+    private static void write(double[][] table, PrintStream out) {
+        out.println("# Fit from shot log by ShotTableFitter");
+        out.println("distance_cm,speed");
+        for (int i = 0; i < table[0].length; i++) {
+            out.println(String.format(Locale.ROOT, "%.2f,%.4f", table[0][i], table[1][i]));
+        }
+    }
+}
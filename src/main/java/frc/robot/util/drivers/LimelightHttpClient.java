@@ -0,0 +1,154 @@
+package frc.robot.util.drivers;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs limelight HTTP requests (snapshots etc.) on one dedicated, low priority thread with a small bounded queue,
+ * connect/read timeouts, coalescing of identical requests and a rate limit. A burst of requests can't pile up threads
+ * or starve the common fork-join pool.
+ */
+public class LimelightHttpClient {
+    private static final LimelightHttpClient DEFAULT = new LimelightHttpClient("http://%s.local:5807/");
+
+    /** Requests waiting past this are rejected instead of queued */
+    public static final int MAX_QUEUED = 4;
+    public static final int CONNECT_TIMEOUT_MS = 500;
+    public static final int READ_TIMEOUT_MS = 1000;
+    /** Minimum time between requests */
+    public static final long MIN_INTERVAL_MS = 250;
+
+    private final String baseUrlFormat;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+    private long nextAllowedNanos = 0;
+
+    /**
+     * @param baseUrlFormat base url with %s for the limelight name, point it at a local stub server to test
+     */
+    public LimelightHttpClient(String baseUrlFormat) {
+        this.baseUrlFormat = baseUrlFormat;
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(MAX_QUEUED),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "LimelightHttp");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+    }
+
+    /**
+     * @return the client used by {@link LimelightHelpers}
+     */
+    public static LimelightHttpClient getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Asks a limelight to take a snapshot. If the same snapshot is already queued or in flight, its future is returned
+     * instead, so asking again while a request is being sent doesn't take a second snapshot.
+     * @param limelightName name of the limelight
+     * @param snapshotName name for the snapshot, null or empty for the default
+     * @return completes with true if the limelight accepted the request, false on any failure
+     */
+    public CompletableFuture<Boolean> takeSnapshot(String limelightName, String snapshotName) {
+        String name = snapshotName == null ? "" : snapshotName;
+        return request(limelightName, "capturesnapshot", "snapname", name);
+    }
+
+    /**
+     * Sends a GET request, coalescing with an identical request that is queued or in flight
+     */
+    private CompletableFuture<Boolean> request(String limelightName, String path, String header, String headerValue) {
+        String key = LimelightHelpers.sanitizeName(limelightName) + "/" + path + "/" + headerValue;
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(send(limelightName, path, header, headerValue));
+                } catch (RuntimeException e) {
+                    System.err.println("LL request failed: " + e);
+                    future.complete(false);
+                } finally {
+                    inFlight.remove(key, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, future);
+            System.err.println("LL request dropped, queue full");
+            future.complete(false);
+        }
+        return future;
+    }
+
+    private boolean send(String limelightName, String path, String header, String headerValue) {
+        waitForRateLimit();
+
+        URL url;
+        try {
+            url = new URL(String.format(baseUrlFormat, LimelightHelpers.sanitizeName(limelightName)) + path);
+        } catch (MalformedURLException e) {
+            System.err.println("bad LL URL");
+            return false;
+        }
+
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            connection.setRequestMethod("GET");
+            if (!headerValue.isEmpty()) {
+                connection.setRequestProperty(header, headerValue);
+            }
+
+            if (connection.getResponseCode() == 200) {
+                return true;
+            }
+            System.err.println("Bad LL Request");
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+        return false;
+    }
+
+    /** Only ever called from the single worker thread */
+    private void waitForRateLimit() {
+        long wait = nextAllowedNanos - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        nextAllowedNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MIN_INTERVAL_MS);
+    }
+
+    /** Stops the worker thread. Queued requests are never sent, they and the one being sent complete with false. */
+    public void shutdown() {
+        executor.shutdownNow();
+        for (CompletableFuture<Boolean> future : inFlight.values()) {
+            future.complete(false);
+        }
+        inFlight.clear();
+    }
+}
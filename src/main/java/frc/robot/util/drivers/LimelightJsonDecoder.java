@@ -0,0 +1,312 @@
+package frc.robot.util.drivers;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import frc.robot.util.drivers.LimelightHelpers.LimelightResults;
+import frc.robot.util.drivers.LimelightHelpers.LimelightTarget_Fiducial;
+
+/**
+ * Streaming replacement for {@link LimelightHelpers#getLatestResults(String)}. Only the requested sections of the
+ * json dump are decoded, in one pass, into a {@link LimelightResults} that is reused between calls.
+ * Not thread safe, use one decoder per thread.
+ */
+public class LimelightJsonDecoder {
+    /** pID, tl, cl, ts, ts_rio and v */
+    public static final int SECTION_HEADER = 1;
+    /** botpose arrays and the botpose_ tag statistics */
+    public static final int SECTION_BOTPOSE = 1 << 1;
+    /** Fiducial targets */
+    public static final int SECTION_FIDUCIALS = 1 << 2;
+    /** Every section this decoder understands */
+    public static final int SECTION_ALL = SECTION_HEADER | SECTION_BOTPOSE | SECTION_FIDUCIALS;
+
+    private static final LimelightTarget_Fiducial[] NO_FIDUCIALS = new LimelightTarget_Fiducial[0];
+
+    private final JsonFactory factory = new JsonFactory();
+    private final LimelightResults results = new LimelightResults();
+
+    private LimelightTarget_Fiducial[] fiducialPool = NO_FIDUCIALS;
+    /** Arrays of each length seen so far, all backed by the same pooled targets */
+    private LimelightTarget_Fiducial[][] fiducialViews = new LimelightTarget_Fiducial[1][];
+
+    public LimelightJsonDecoder() {
+        fiducialViews[0] = NO_FIDUCIALS;
+    }
+
+    /**
+     * Reads and decodes the json dump from a limelight
+     * @param limelightName Name of the Limelight camera
+     * @param sections bitmask of SECTION_ constants
+     * @return the shared results object, overwritten on the next call
+     */
+    public LimelightResults decodeLatest(String limelightName, int sections) {
+        return decode(LimelightHelpers.getJSONDump(limelightName), sections);
+    }
+
+    /**
+     * Decodes a json dump
+     * @param json the json dump
+     * @param sections bitmask of SECTION_ constants
+     * @return the shared results object, overwritten on the next call
+     */
+    public LimelightResults decode(String json, int sections) {
+        long start = System.nanoTime();
+        results.error = null;
+        // Keys missing from this frame read as defaults, like a fresh ObjectMapper result, not last frame's value
+        if ((sections & SECTION_HEADER) != 0) {
+            results.pipelineID = 0;
+            results.latency_pipeline = 0;
+            results.latency_capture = 0;
+            results.timestamp_LIMELIGHT_publish = 0;
+            results.timestamp_RIOFPGA_capture = 0;
+            results.valid = false;
+        }
+        if ((sections & SECTION_BOTPOSE) != 0) {
+            Arrays.fill(results.botpose, 0);
+            Arrays.fill(results.botpose_wpired, 0);
+            Arrays.fill(results.botpose_wpiblue, 0);
+            Arrays.fill(results.camerapose_robotspace, 0);
+            results.botpose_tagcount = 0;
+            results.botpose_span = 0;
+            results.botpose_avgdist = 0;
+            results.botpose_avgarea = 0;
+        }
+        if ((sections & SECTION_FIDUCIALS) != 0) {
+            results.targets_Fiducials = NO_FIDUCIALS;
+        }
+
+        try (JsonParser parser = factory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("expected json object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                if (!readTopLevel(parser, name, sections)) {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            results.error = "lljson error: " + e.getMessage();
+        }
+
+        results.latency_jsonParse = (System.nanoTime() - start) * .000001;
+        return results;
+    }
+
+    private boolean readTopLevel(JsonParser parser, String name, int sections) throws IOException {
+        if ((sections & SECTION_HEADER) != 0) {
+            switch (name) {
+                case "pID":
+                    results.pipelineID = parser.getValueAsDouble();
+                    return true;
+                case "tl":
+                    results.latency_pipeline = parser.getValueAsDouble();
+                    return true;
+                case "cl":
+                    results.latency_capture = parser.getValueAsDouble();
+                    return true;
+                case "ts":
+                    results.timestamp_LIMELIGHT_publish = parser.getValueAsDouble();
+                    return true;
+                case "ts_rio":
+                    results.timestamp_RIOFPGA_capture = parser.getValueAsDouble();
+                    return true;
+                case "v":
+                    results.valid = parser.getValueAsBoolean();
+                    return true;
+                default:
+                    break;
+            }
+        }
+
+        if ((sections & SECTION_BOTPOSE) != 0) {
+            switch (name) {
+                case "botpose":
+                    readArray(parser, results.botpose);
+                    return true;
+                case "botpose_wpired":
+                    readArray(parser, results.botpose_wpired);
+                    return true;
+                case "botpose_wpiblue":
+                    readArray(parser, results.botpose_wpiblue);
+                    return true;
+                case "botpose_tagcount":
+                    results.botpose_tagcount = parser.getValueAsDouble();
+                    return true;
+                case "botpose_span":
+                    results.botpose_span = parser.getValueAsDouble();
+                    return true;
+                case "botpose_avgdist":
+                    results.botpose_avgdist = parser.getValueAsDouble();
+                    return true;
+                case "botpose_avgarea":
+                    results.botpose_avgarea = parser.getValueAsDouble();
+                    return true;
+                case "t6c_rs":
+                    readArray(parser, results.camerapose_robotspace);
+                    return true;
+                default:
+                    break;
+            }
+        }
+
+        if ((sections & SECTION_FIDUCIALS) != 0 && name.equals("Fiducial")) {
+            readFiducials(parser);
+            return true;
+        }
+
+        return false;
+    }
+
+    private void readFiducials(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+
+        int count = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            LimelightTarget_Fiducial target = pooledFiducial(count++);
+            reset(target);
+            boolean hasFamily = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                hasFamily |= name.equals("fam");
+                readFiducialField(parser, name, target);
+            }
+            // Kept until here so an unchanged family doesn't allocate a new string every frame
+            if (!hasFamily) {
+                target.fiducialFamily = null;
+            }
+        }
+        results.targets_Fiducials = fiducialView(count);
+    }
+
+    private void readFiducialField(JsonParser parser, String name, LimelightTarget_Fiducial target)
+            throws IOException {
+        switch (name) {
+            case "fID":
+                target.fiducialID = parser.getValueAsDouble();
+                break;
+            case "fam":
+                String family = parser.getText();
+                if (!family.equals(target.fiducialFamily)) {
+                    target.fiducialFamily = family;
+                }
+                break;
+            case "t6c_ts":
+                readArray(parser, target.cameraPose_TargetSpace);
+                break;
+            case "t6r_fs":
+                readArray(parser, target.robotPose_FieldSpace);
+                break;
+            case "t6r_ts":
+                readArray(parser, target.robotPose_TargetSpace);
+                break;
+            case "t6t_cs":
+                readArray(parser, target.targetPose_CameraSpace);
+                break;
+            case "t6t_rs":
+                readArray(parser, target.targetPose_RobotSpace);
+                break;
+            case "ta":
+                target.ta = parser.getValueAsDouble();
+                break;
+            case "tx":
+                target.tx = parser.getValueAsDouble();
+                break;
+            case "ty":
+                target.ty = parser.getValueAsDouble();
+                break;
+            case "txp":
+                target.tx_pixels = parser.getValueAsDouble();
+                break;
+            case "typ":
+                target.ty_pixels = parser.getValueAsDouble();
+                break;
+            case "tx_nocross":
+                target.tx_nocrosshair = parser.getValueAsDouble();
+                break;
+            case "ty_nocross":
+                target.ty_nocrosshair = parser.getValueAsDouble();
+                break;
+            case "ts":
+                target.ts = parser.getValueAsDouble();
+                break;
+            default:
+                parser.skipChildren();
+                break;
+        }
+    }
+
+    /** Sets a pooled target back to defaults, except the family which readFiducials handles */
+    private static void reset(LimelightTarget_Fiducial target) {
+        target.fiducialID = 0;
+        Arrays.fill(target.cameraPose_TargetSpace, 0);
+        Arrays.fill(target.robotPose_FieldSpace, 0);
+        Arrays.fill(target.robotPose_TargetSpace, 0);
+        Arrays.fill(target.targetPose_CameraSpace, 0);
+        Arrays.fill(target.targetPose_RobotSpace, 0);
+        target.ta = 0;
+        target.tx = 0;
+        target.ty = 0;
+        target.tx_pixels = 0;
+        target.ty_pixels = 0;
+        target.tx_nocrosshair = 0;
+        target.ty_nocrosshair = 0;
+        target.ts = 0;
+    }
+
+    /**
+     * Reads a json number array into an existing array. Extra values are skipped, missing values are zeroed.
+     */
+    private static void readArray(JsonParser parser, double[] out) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        int i = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (i < out.length) {
+                out[i] = parser.getValueAsDouble();
+            }
+            i++;
+        }
+        for (; i < out.length; i++) {
+            out[i] = 0;
+        }
+    }
+
+    private LimelightTarget_Fiducial pooledFiducial(int index) {
+        if (index >= fiducialPool.length) {
+            LimelightTarget_Fiducial[] grown = new LimelightTarget_Fiducial[Math.max(4, fiducialPool.length * 2)];
+            System.arraycopy(fiducialPool, 0, grown, 0, fiducialPool.length);
+            for (int i = fiducialPool.length; i < grown.length; i++) {
+                grown[i] = new LimelightTarget_Fiducial();
+            }
+            fiducialPool = grown;
+        }
+        return fiducialPool[index];
+    }
+
+    private LimelightTarget_Fiducial[] fiducialView(int count) {
+        if (count >= fiducialViews.length) {
+            LimelightTarget_Fiducial[][] grown = new LimelightTarget_Fiducial[count + 1][];
+            System.arraycopy(fiducialViews, 0, grown, 0, fiducialViews.length);
+            fiducialViews = grown;
+        }
+        if (fiducialViews[count] == null) {
+            LimelightTarget_Fiducial[] view = new LimelightTarget_Fiducial[count];
+            System.arraycopy(fiducialPool, 0, view, 0, count);
+            fiducialViews[count] = view;
+        }
+        return fiducialViews[count];
+    }
+}
@@ -0,0 +1,116 @@
+package frc.robot.util.math;
+
+/**
+ * One dimensional constant velocity Kalman filter (position + velocity), done with plain doubles so it can run
+ * every loop without allocating.
+ */
+public class ConstantVelocityFilter {
+    private final double processNoise;
+    private final double measurementNoise;
+
+    private double position, velocity;
+    private double p00, p01, p10, p11;
+    private boolean initialized = false;
+
+    /**
+     * @param processNoise acceleration noise spectral density, higher trusts measurements more
+     * @param measurementNoise variance of a single measurement
+     */
+    public ConstantVelocityFilter(double processNoise, double measurementNoise) {
+        this.processNoise = processNoise;
+        this.measurementNoise = measurementNoise;
+    }
+
+    /**
+     * Moves the state forward in time
+     * @param dt seconds to predict forward
+     */
+    public void predict(double dt) {
+        if (!initialized || dt <= 0) return;
+
+        position += velocity * dt;
+
+        double dt2 = dt * dt;
+        double q00 = processNoise * dt2 * dt / 3;
+        double q01 = processNoise * dt2 / 2;
+        double q11 = processNoise * dt;
+
+        // P = F P F' + Q with F = [1 dt; 0 1]
+        double n00 = p00 + dt * (p10 + p01) + dt2 * p11 + q00;
+        double n01 = p01 + dt * p11 + q01;
+        double n10 = p10 + dt * p11 + q01;
+        double n11 = p11 + q11;
+        p00 = n00;
+        p01 = n01;
+        p10 = n10;
+        p11 = n11;
+    }
+
+    /**
+     * Corrects the state with a measurement of position
+     * @param measurement the measured position
+     */
+    public void correct(double measurement) {
+        if (!initialized) {
+            reset(measurement);
+            return;
+        }
+
+        double s = p00 + measurementNoise;
+        double k0 = p00 / s;
+        double k1 = p10 / s;
+        double error = measurement - position;
+
+        position += k0 * error;
+        velocity += k1 * error;
+
+        double n00 = (1 - k0) * p00;
+        double n01 = (1 - k0) * p01;
+        double n10 = p10 - k1 * p00;
+        double n11 = p11 - k1 * p01;
+        p00 = n00;
+        p01 = n01;
+        p10 = n10;
+        p11 = n11;
+    }
+
+    /**
+     * Restarts the filter at a position with no velocity
+     * @param measurement the starting position
+     */
+    public void reset(double measurement) {
+        position = measurement;
+        velocity = 0;
+        p00 = measurementNoise;
+        p01 = 0;
+        p10 = 0;
+        p11 = measurementNoise;
+        initialized = true;
+    }
+
+    /** Forgets everything, the next measurement restarts the filter */
+    public void clear() {
+        initialized = false;
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public double getPosition() {
+        return position;
+    }
+
+    public double getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * Extrapolates the position without changing the filter
+     * @param dt seconds ahead
+     * @return the predicted position
+     */
+    public double getPositionAhead(double dt) {
+        return position + velocity * dt;
+    }
+}
@@ -0,0 +1,68 @@
+package frc.robot.util.math;
+
+import java.util.Arrays;
+
+import frc.robot.util.Interpolable;
+
+/**
+ * {@link InterpolationTable} for any {@link Interpolable} value. Keys are kept in a primitive array and searched the
+ * same way, the only allocation is whatever {@link Interpolable#interpolate} makes.
+ * @param <T> value type
+ */
+public class InterpolableTable<T extends Interpolable<T>> {
+    private final double[] keys;
+    private final Object[] values;
+
+    /**
+     * Makes a table from points in any order
+     * @param keys point keys, copied, must not contain duplicates
+     * @param values point values, copied, same length as keys
+     */
+    public InterpolableTable(double[] keys, T[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys and values must be the same length");
+        }
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("table needs at least one point");
+        }
+
+        int n = keys.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(keys[a], keys[b]));
+
+        this.keys = new double[n];
+        this.values = new Object[n];
+        for (int i = 0; i < n; i++) {
+            this.keys[i] = keys[order[i]];
+            this.values[i] = values[order[i]];
+            if (i > 0 && this.keys[i] == this.keys[i - 1]) {
+                throw new IllegalArgumentException("duplicate key " + this.keys[i]);
+            }
+        }
+    }
+
+    /**
+     * @param key the key
+     * @return the interpolated value, the end value outside the table
+     */
+    @SuppressWarnings("unchecked")
+    public T get(double key) {
+        int last = keys.length - 1;
+        if (key <= keys[0]) return (T) values[0];
+        if (key >= keys[last]) return (T) values[last];
+
+        int i = InterpolationTable.lowerIndex(keys, key);
+        double t = (key - keys[i]) / (keys[i + 1] - keys[i]);
+        return ((T) values[i]).interpolate((T) values[i + 1], t);
+    }
+
+    /**
+     * @return number of points
+     */
+    public int size() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,165 @@
+package frc.robot.util.math;
+
+import java.util.Arrays;
+
+/**
+ * Linearly interpolated lookup table stored in primitive arrays. Lookups don't allocate and clamp to the first and
+ * last point outside the table, like {@link edu.wpi.first.math.interpolation.InterpolatingDoubleTreeMap}.
+ *
+ * <p>Sorted tables use a binary search. Tables made with {@link #uniform} or {@link #toUniform} have evenly spaced
+ * keys and find their segment with a single multiply.
+ */
+public class InterpolationTable {
+    private final double[] keys;
+    private final double[] values;
+
+    /** Only used by uniform tables */
+    private final boolean uniform;
+    private final double start;
+    private final double inverseStep;
+
+    /**
+     * Makes a table from points in any order
+     * @param keys point keys, copied, must not contain duplicates
+     * @param values point values, copied, same length as keys
+     */
+    public InterpolationTable(double[] keys, double[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys and values must be the same length");
+        }
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("table needs at least one point");
+        }
+
+        int n = keys.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(keys[a], keys[b]));
+
+        this.keys = new double[n];
+        this.values = new double[n];
+        for (int i = 0; i < n; i++) {
+            this.keys[i] = keys[order[i]];
+            this.values[i] = values[order[i]];
+            if (i > 0 && this.keys[i] == this.keys[i - 1]) {
+                throw new IllegalArgumentException("duplicate key " + this.keys[i]);
+            }
+        }
+
+        uniform = false;
+        start = 0;
+        inverseStep = 0;
+    }
+
+    private InterpolationTable(double start, double step, double[] values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("table needs at least one point");
+        }
+        if (!(step > 0)) {
+            throw new IllegalArgumentException("step must be positive");
+        }
+
+        this.values = values.clone();
+        keys = new double[values.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = start + step * i;
+        }
+
+        uniform = true;
+        this.start = start;
+        inverseStep = 1 / step;
+    }
+
+    /**
+     * Makes a table with evenly spaced keys, lookups are O(1)
+     * @param start key of the first value
+     * @param step spacing between keys
+     * @param values values in key order
+     * @return the table
+     */
+    public static InterpolationTable uniform(double start, double step, double... values) {
+        return new InterpolationTable(start, step, values);
+    }
+
+    /**
+     * Resamples this table onto evenly spaced keys over the same range, for O(1) lookups
+     * @param points number of points, at least 2. More points follow the original corners more closely.
+     * @return the new table
+     */
+    public InterpolationTable toUniform(int points) {
+        if (points < 2 || keys.length < 2) {
+            return uniform(keys[0], 1, values[0]);
+        }
+
+        double first = keys[0];
+        double step = (keys[keys.length - 1] - first) / (points - 1);
+        double[] resampled = new double[points];
+        for (int i = 0; i < points; i++) {
+            resampled[i] = get(first + step * i);
+        }
+        return uniform(first, step, resampled);
+    }
+
+    /**
+     * @param key the key
+     * @return the interpolated value, clamped to the end values outside the table
+     */
+    public double get(double key) {
+        int last = keys.length - 1;
+        if (key <= keys[0]) return values[0];
+        if (key >= keys[last]) return values[last];
+
+        int i;
+        if (uniform) {
+            i = Math.min((int) ((key - start) * inverseStep), last - 1);
+        } else {
+            i = lowerIndex(keys, key);
+        }
+
+        double t = (key - keys[i]) / (keys[i + 1] - keys[i]);
+        return values[i] + (values[i + 1] - values[i]) * t;
+    }
+
+    /**
+     * Finds the segment containing a key
+     * @param keys sorted keys
+     * @param key key strictly between the first and last key
+     * @return index of the last key less than or equal to key
+     */
+    static int lowerIndex(double[] keys, double key) {
+        int low = 0;
+        int high = keys.length - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] <= key) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return number of points
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * @return smallest key
+     */
+    public double minKey() {
+        return keys[0];
+    }
+
+    /**
+     * @return largest key
+     */
+    public double maxKey() {
+        return keys[keys.length - 1];
+    }
+}
@@ -0,0 +1,86 @@
+package frc.robot.util.math;
+
+/**
+ * Bilinearly interpolated lookup table over two keys, stored in primitive arrays. Lookups don't allocate. Outside the
+ * table each key is clamped to its first or last row/column, so the result never extrapolates past measured values.
+ */
+public class InterpolationTable2D {
+    private final double[] xKeys;
+    private final double[] yKeys;
+    /** Row major, values[xIndex * yKeys.length + yIndex] */
+    private final double[] values;
+
+    /**
+     * @param xKeys first key, strictly increasing, copied
+     * @param yKeys second key, strictly increasing, copied
+     * @param values xKeys.length rows of yKeys.length values, copied
+     */
+    public InterpolationTable2D(double[] xKeys, double[] yKeys, double[][] values) {
+        checkIncreasing(xKeys);
+        checkIncreasing(yKeys);
+        if (values.length != xKeys.length) {
+            throw new IllegalArgumentException("need one row of values per x key");
+        }
+
+        this.xKeys = xKeys.clone();
+        this.yKeys = yKeys.clone();
+        this.values = new double[xKeys.length * yKeys.length];
+        for (int i = 0; i < xKeys.length; i++) {
+            if (values[i].length != yKeys.length) {
+                throw new IllegalArgumentException("row " + i + " needs one value per y key");
+            }
+            System.arraycopy(values[i], 0, this.values, i * yKeys.length, yKeys.length);
+        }
+    }
+
+    private static void checkIncreasing(double[] keys) {
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("table needs at least one key");
+        }
+        for (int i = 1; i < keys.length; i++) {
+            if (!(keys[i] > keys[i - 1])) {
+                throw new IllegalArgumentException("keys must be strictly increasing");
+            }
+        }
+    }
+
+    /**
+     * @param x first key
+     * @param y second key
+     * @return the interpolated value
+     */
+    public double get(double x, double y) {
+        int columns = yKeys.length;
+
+        int xi = segment(xKeys, x);
+        double tx = fraction(xKeys, xi, x);
+        int yi = segment(yKeys, y);
+        double ty = fraction(yKeys, yi, y);
+
+        int x1 = Math.min(xi + 1, xKeys.length - 1);
+        int y1 = Math.min(yi + 1, columns - 1);
+
+        double v00 = values[xi * columns + yi];
+        double v01 = values[xi * columns + y1];
+        double v10 = values[x1 * columns + yi];
+        double v11 = values[x1 * columns + y1];
+
+        double low = v00 + (v01 - v00) * ty;
+        double high = v10 + (v11 - v10) * ty;
+        return low + (high - low) * tx;
+    }
+
+    /** Index of the segment holding key, clamped to the table */
+    private static int segment(double[] keys, double key) {
+        int last = keys.length - 1;
+        if (last == 0 || key <= keys[0]) return 0;
+        if (key >= keys[last]) return last;
+        return InterpolationTable.lowerIndex(keys, key);
+    }
+
+    /** How far key is through its segment, 0 to 1 */
+    private static double fraction(double[] keys, int index, double key) {
+        if (index >= keys.length - 1) return 0;
+        return MathUtils.clamp((key - keys[index]) / (keys[index + 1] - keys[index]), 0, 1);
+    }
+}
@@ -103,6 +103,36 @@ public class MathUtils {
         };
 	}
 
+	/**
+	 * Solves the equation <code>0 = ax<sup>2</sup> + bx + c</code> for its smallest positive root without allocating.
+	 * Falls back to the linear solution when a is 0.
+	 *
+	 * @param a the a coefficient
+	 * @param b the b coefficient
+	 * @param c the c coefficient
+	 * @return the smallest root greater than 0, or {@link Double#NaN} if there isn't one
+	 */
+	public static double smallestPositiveRoot(double a, double b, double c) {
+		if (abs(a) < EPSILON) {
+			if (abs(b) < EPSILON) return Double.NaN;
+			double root = -c / b;
+			return root > 0 ? root : Double.NaN;
+		}
+
+		double discriminant = b * b - 4 * a * c;
+		if (discriminant < 0) return Double.NaN;
+
+		// Numerically stable form, avoids cancellation when b is much bigger than a * c
+		double q = -0.5 * (b + Math.copySign(Math.sqrt(discriminant), b));
+		double r1 = q / a;
+		double r2 = abs(q) < EPSILON ? r1 : c / q;
+		double low = min(r1, r2);
+		double high = max(r1, r2);
+		if (low > 0) return low;
+		if (high > 0) return high;
+		return Double.NaN;
+	}
+
 	public static double lerp(double start, double end, double t) {
 		return start + (end - start) * t;
 	}
@@ -0,0 +1,129 @@
+package frc.robot.util.vision;
+
+import frc.robot.util.drivers.LimelightHelpers;
+import frc.robot.util.math.MathUtils;
+
+/**
+ * Shrinks the limelight crop window around the tracked tag and raises fiducial downscaling when the tag is big, so
+ * the camera processes fewer pixels and runs at a higher frame rate while aiming. Opens back up when the target is
+ * lost. Only sends NetworkTables updates when something actually changes. Starts disabled.
+ *
+ * <p>The crop window in the limelight UI must be left fully open for this to work.
+ */
+public class CropWindowController {
+    /** Frames without a target before the window is opened back up */
+    public static final int LOST_FRAMES = 5;
+    /** Smallest allowed crop half-width, in normalized image units (-1 to 1) */
+    public static final double MIN_HALF_SIZE = 0.25;
+    /** Crop margin per degree the tag subtends, leaves room for the tag to move between frames */
+    public static final double MARGIN_PER_DEGREE = 0.06;
+
+    private final String limelightName;
+    private final double horizontalFov;
+    private final double verticalFov;
+
+    private int framesLost = LOST_FRAMES;
+    private double xMin = -1, xMax = 1, yMin = -1, yMax = 1;
+    private float downscale = 0;
+    private boolean enabled = false;
+
+    /**
+     * @param limelightName name of the limelight
+     * @param horizontalFov horizontal field of view in degrees
+     * @param verticalFov vertical field of view in degrees
+     */
+    public CropWindowController(String limelightName, double horizontalFov, double verticalFov) {
+        this.limelightName = limelightName;
+        this.horizontalFov = horizontalFov;
+        this.verticalFov = verticalFov;
+        send(true);
+    }
+
+    /**
+     * Turns adaptive cropping on or off. Off opens the window and hands downscaling back to the pipeline.
+     * @param enabled if cropping should be used
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            framesLost = LOST_FRAMES;
+            openWindow();
+        }
+    }
+
+    /**
+     * Updates the crop window from the tracked target. Call once per loop.
+     * @param tracker the target tracker for this limelight
+     */
+    public void update(TargetTracker tracker) {
+        if (!enabled) return;
+
+        if (!tracker.hasTarget()) {
+            if (framesLost < LOST_FRAMES && ++framesLost == LOST_FRAMES) {
+                openWindow();
+            }
+            return;
+        }
+        framesLost = 0;
+
+        // Tag center in normalized image coordinates, tx positive right and ty positive up
+        double centerX = tracker.getTx() / (horizontalFov / 2);
+        double centerY = tracker.getTy() / (verticalFov / 2);
+
+        // ta is percent of the image, so the tag's apparent size in degrees is roughly sqrt of its share of the fov
+        double ta = tracker.getTa();
+        double tagDegrees = Math.sqrt(ta / 100 * horizontalFov * verticalFov);
+        double half = Math.max(MIN_HALF_SIZE, tagDegrees * MARGIN_PER_DEGREE + tagDegrees / horizontalFov);
+
+        double newXMin = MathUtils.clamp(centerX - half, -1, 1);
+        double newXMax = MathUtils.clamp(centerX + half, -1, 1);
+        double newYMin = MathUtils.clamp(centerY - half, -1, 1);
+        double newYMax = MathUtils.clamp(centerY + half, -1, 1);
+
+        // Big tags are close, they survive heavy downscaling and it saves the most time
+        float newDownscale;
+        if (ta > 4) {
+            newDownscale = 3;
+        } else if (ta > 1.5) {
+            newDownscale = 2;
+        } else if (ta > 0.5) {
+            newDownscale = 1.5f;
+        } else {
+            newDownscale = 1;
+        }
+
+        boolean windowMoved = Math.abs(newXMin - xMin) > 0.05 || Math.abs(newXMax - xMax) > 0.05
+                || Math.abs(newYMin - yMin) > 0.05 || Math.abs(newYMax - yMax) > 0.05;
+        if (windowMoved) {
+            xMin = newXMin;
+            xMax = newXMax;
+            yMin = newYMin;
+            yMax = newYMax;
+        }
+        boolean downscaleChanged = newDownscale != downscale;
+        downscale = newDownscale;
+        send(windowMoved, downscaleChanged);
+    }
+
+    private void openWindow() {
+        xMin = -1;
+        xMax = 1;
+        yMin = -1;
+        yMax = 1;
+        downscale = 0;
+        send(true);
+    }
+
+    private void send(boolean all) {
+        send(all, all);
+    }
+
+    private void send(boolean window, boolean scaling) {
+        if (window) {
+            LimelightHelpers.setCropWindow(limelightName, xMin, xMax, yMin, yMax);
+        }
+        if (scaling) {
+            LimelightHelpers.SetFiducialDownscalingOverride(limelightName, downscale);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package frc.robot.util.vision;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import frc.robot.util.PoseHistory;
+import frc.robot.util.drivers.LimelightHelpers.RawFiducial;
+import frc.robot.util.math.MathUtils;
+
+/**
+ * Default vision outlier rejection. Drops frames we know are bad and down-weights ones we only half believe, so a
+ * single bad frame can't snap the pose.
+ */
+public class DefaultVisionFilter implements VisionMeasurementFilter {
+    /** MegaTag2 falls apart while spinning faster than this (degrees per second) */
+    public static final double MAX_YAW_RATE = 720;
+    /** Frames older than this are dropped (seconds) */
+    public static final double MAX_AGE = 0.3;
+    /** Tags further than this are dropped (meters) */
+    public static final double MAX_TAG_DIST = 6;
+    /** Single tag frames with more ambiguity than this are dropped */
+    public static final double MAX_AMBIGUITY = 0.7;
+    /** Single tag frames that jump further than this from odometry are dropped (meters) */
+    public static final double MAX_SINGLE_TAG_JUMP = 1;
+    /** Multi tag frames that jump further than this from odometry are dropped (meters) */
+    public static final double MAX_MULTI_TAG_JUMP = 2;
+
+    private final PoseHistory history;
+    private final PoseHistory.Sample captured = new PoseHistory.Sample();
+
+    /**
+     * @param history odometry history, so frames are checked against where the robot was when they were captured
+     */
+    public DefaultVisionFilter(PoseHistory history) {
+        this.history = history;
+    }
+
+    @Override
+    public double score(PoseEstimateBuffer measurement, Pose2d odometryPose, double yawRateDegrees,
+            double nowSeconds) {
+        if (!measurement.valid || measurement.tagCount == 0) return 0;
+        if (Math.abs(yawRateDegrees) > MAX_YAW_RATE) return 0;
+
+        double age = nowSeconds - measurement.timestampSeconds;
+        if (age > MAX_AGE || measurement.avgTagDist > MAX_TAG_DIST) return 0;
+
+        boolean singleTag = measurement.tagCount == 1;
+
+        double maxAmbiguity = 0;
+        for (int i = 0; i < measurement.fiducialCount; i++) {
+            RawFiducial fiducial = measurement.rawFiducials[i];
+            maxAmbiguity = Math.max(maxAmbiguity, fiducial.ambiguity);
+        }
+        if (singleTag && maxAmbiguity > MAX_AMBIGUITY) return 0;
+
+        // Compare against odometry at capture time, otherwise a moving robot looks like it jumped
+        double odometryX = odometryPose.getX(), odometryY = odometryPose.getY();
+        if (history.sample(measurement.timestampSeconds, captured)) {
+            odometryX = captured.x;
+            odometryY = captured.y;
+        }
+        double jump = Math.hypot(measurement.x - odometryX, measurement.y - odometryY);
+        double maxJump = singleTag ? MAX_SINGLE_TAG_JUMP : MAX_MULTI_TAG_JUMP;
+        if (jump > maxJump) return 0;
+
+        double weight = 1;
+        weight *= 1 - maxAmbiguity;
+        weight *= 1 - jump / maxJump;
+        // Clock skew can make a frame look slightly newer than now, don't let that boost it
+        weight *= MathUtils.clamp(1 - age / MAX_AGE, 0, 1);
+        // Tags spread across the image constrain the solve much better than tags bunched together
+        if (!singleTag) {
+            weight *= MathUtils.clamp(0.5 + measurement.tagSpan, 0.5, 1.5);
+        }
+        return weight;
+    }
+}
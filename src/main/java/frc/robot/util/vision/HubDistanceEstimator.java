@@ -0,0 +1,210 @@
+package frc.robot.util.vision;
+
+import java.util.Optional;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import frc.robot.util.LimelightTAMatrix;
+import frc.robot.util.math.MathUtils;
+
+/**
+ * Estimates the distance from the robot to the center of our hub, in centimeters to match
+ * {@link frc.robot.util.ShooterDistanceMatrix}. Three sources are tried and the most confident one wins:
+ * <ul>
+ * <li>The fused robot pose, trusted while vision has corrected it recently</li>
+ * <li>The limelight's 3D solve of the hub tag, combined with our heading and the tag's field position</li>
+ * <li>Tag area through {@link LimelightTAMatrix}, only inside its calibrated range</li>
+ * </ul>
+ */
+public class HubDistanceEstimator {
+    public enum Source {
+        NONE,
+        FUSED_POSE,
+        TAG_3D,
+        TARGET_AREA
+    }
+
+    /** Fused pose confidence drops to 0 this long after the last vision correction (seconds) */
+    public static final double FUSED_POSE_TIMEOUT = 2;
+    /** Tag 3D confidence drops to 0 at this camera to tag distance (meters) */
+    public static final double MAX_TAG_DISTANCE = 6;
+    /** Largest tag distance in the TA matrix (centimeters) */
+    public static final double TA_CALIBRATED_RANGE = 150;
+    /** Confidence of the TA fallback inside its calibrated range */
+    public static final double TA_CONFIDENCE = 0.3;
+
+    private final String limelightName;
+    private final HubTargets hubTargets;
+
+    private final double redHubX, redHubY, blueHubX, blueHubY;
+    /** Field position of each tag, indexed by id, NaN if not on the field */
+    private final double[] tagX = new double[64], tagY = new double[64];
+    /** Distance from each hub tag to its hub center in centimeters, for the TA fallback */
+    private final double[] tagToCenter = new double[64];
+
+    private double hubX, hubY;
+    private double distance;
+    private double confidence;
+    private Source source = Source.NONE;
+
+    /**
+     * @param limelightName the limelight that sees the hub
+     * @param hubTargets which tags are on our hub
+     * @param field field layout, used to find the hub centers
+     */
+    public HubDistanceEstimator(String limelightName, HubTargets hubTargets, AprilTagFieldLayout field) {
+        this.limelightName = limelightName;
+        this.hubTargets = hubTargets;
+
+        for (int id = 0; id < tagX.length; id++) {
+            Optional<Pose3d> pose = field.getTagPose(id);
+            tagX[id] = pose.isPresent() ? pose.get().getX() : Double.NaN;
+            tagY[id] = pose.isPresent() ? pose.get().getY() : Double.NaN;
+        }
+
+        double[] red = center(HubTargets.RED_HUB_TAGS);
+        double[] blue = center(HubTargets.BLUE_HUB_TAGS);
+        redHubX = red[0];
+        redHubY = red[1];
+        blueHubX = blue[0];
+        blueHubY = blue[1];
+
+        for (int id : HubTargets.RED_HUB_TAGS) {
+            tagToCenter[id] = Math.hypot(tagX[id] - redHubX, tagY[id] - redHubY) * 100;
+        }
+        for (int id : HubTargets.BLUE_HUB_TAGS) {
+            tagToCenter[id] = Math.hypot(tagX[id] - blueHubX, tagY[id] - blueHubY) * 100;
+        }
+    }
+
+    /** Hub center is the average of its tags */
+    private double[] center(int[] tags) {
+        double x = 0, y = 0;
+        int count = 0;
+        for (int id : tags) {
+            if (Double.isNaN(tagX[id])) continue;
+            x += tagX[id];
+            y += tagY[id];
+            count++;
+        }
+        return new double[] { x / count, y / count };
+    }
+
+    /**
+     * Updates the estimate. Call once per loop, after vision has been fused.
+     * @param target the hub target tracker
+     * @param fusedPose current fused robot pose
+     * @param secondsSinceVision time since vision last corrected the fused pose, infinity if never
+     */
+    public void update(TargetTracker target, Pose2d fusedPose, double secondsSinceVision) {
+        boolean red = isRedHub(fusedPose);
+        hubX = red ? redHubX : blueHubX;
+        hubY = red ? redHubY : blueHubY;
+
+        distance = 0;
+        confidence = 0;
+        source = Source.NONE;
+
+        double fusedConfidence = MathUtils.clamp(1 - secondsSinceVision / FUSED_POSE_TIMEOUT, 0, 1);
+        if (fusedConfidence > 0) {
+            use(Source.FUSED_POSE, Math.hypot(hubX - fusedPose.getX(), hubY - fusedPose.getY()) * 100,
+                    fusedConfidence);
+        }
+
+        if (!target.hasTarget() || !hubTargets.isHubTag(target.getTid())) return;
+        int tid = target.getTid();
+
+        // Robot space is x forward, y right, z up. Rotate the robot to tag vector onto the field with our heading
+        // and subtract it from the tag's field position to get where we are. Read from the same snapshot as the
+        // tracker so the pose belongs to the tag being tracked, and skip it while the tracker is coasting.
+        VisionSnapshot snapshot = VisionSnapshot.get(limelightName);
+        double[] tagInRobot = snapshot.targetPoseRobotSpace;
+        if (snapshot.tv && snapshot.tid == tid && tagInRobot.length >= 3
+                && (tagInRobot[0] != 0 || tagInRobot[1] != 0) && !Double.isNaN(tagX[tid])) {
+            double forward = tagInRobot[0];
+            double left = -tagInRobot[1];
+            double tagDistance = Math.hypot(forward, left);
+            double cos = fusedPose.getRotation().getCos();
+            double sin = fusedPose.getRotation().getSin();
+            double robotX = tagX[tid] - (forward * cos - left * sin);
+            double robotY = tagY[tid] - (forward * sin + left * cos);
+            use(Source.TAG_3D, Math.hypot(hubX - robotX, hubY - robotY) * 100,
+                    0.9 * MathUtils.clamp(1 - tagDistance / MAX_TAG_DISTANCE, 0, 1));
+        }
+
+        // The matrix clamps, so a tag at the edge of the table may really be farther away
+        double tagDistance = LimelightTAMatrix.get(target.getTa());
+        if (tagDistance < TA_CALIBRATED_RANGE) {
+            use(Source.TARGET_AREA, tagDistance + tagToCenter[tid], TA_CONFIDENCE);
+        }
+    }
+
+    private void use(Source source, double distance, double confidence) {
+        if (confidence <= this.confidence) return;
+        this.source = source;
+        this.distance = distance;
+        this.confidence = confidence;
+    }
+
+    /** Our alliance's hub, or the closer one if the alliance isn't known yet */
+    private boolean isRedHub(Pose2d pose) {
+        Optional<Alliance> alliance = hubTargets.getAlliance();
+        if (alliance.isPresent()) {
+            return alliance.get() == Alliance.Red;
+        }
+        return Math.hypot(redHubX - pose.getX(), redHubY - pose.getY())
+                < Math.hypot(blueHubX - pose.getX(), blueHubY - pose.getY());
+    }
+
+    /**
+     * Gets the robot's velocity toward the hub
+     * @param pose robot pose
+     * @param fieldVelocityX field relative x velocity
+     * @param fieldVelocityY field relative y velocity
+     * @return velocity toward the hub center, negative when moving away
+     */
+    public double getRadialVelocity(Pose2d pose, double fieldVelocityX, double fieldVelocityY) {
+        double dx = hubX - pose.getX();
+        double dy = hubY - pose.getY();
+        double range = Math.hypot(dx, dy);
+        if (range < 1e-6) return 0;
+        return (fieldVelocityX * dx + fieldVelocityY * dy) / range;
+    }
+
+    /**
+     * @return x of the hub being aimed at on the field, meters
+     */
+    public double getHubX() {
+        return hubX;
+    }
+
+    /**
+     * @return y of the hub being aimed at on the field, meters
+     */
+    public double getHubY() {
+        return hubY;
+    }
+
+    /**
+     * @return distance from the robot to the hub center in centimeters, 0 if there is no estimate
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return how much to trust {@link #getDistance()}, 0 (no estimate) to 1
+     */
+    public double getConfidence() {
+        return confidence;
+    }
+
+    /**
+     * @return where the current estimate came from
+     */
+    public Source getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,120 @@
+package frc.robot.util.vision;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import frc.robot.util.drivers.LimelightHelpers;
+
+/**
+ * Which april tags belong to our hub. Lookups are a single bit test. When the alliance changes the new priority tag is
+ * pushed to the aiming camera, and the hub tag set too unless it also localizes. MegaTag2 needs every tag it can see,
+ * so localization cameras are kept on a full field filter.
+ */
+public class HubTargets {
+    /** Tags on the red hub */
+    public static final int[] RED_HUB_TAGS = { 2, 3, 4, 5, 8, 9, 10, 11 };
+    /** Tags on the blue hub */
+    public static final int[] BLUE_HUB_TAGS = { 18, 19, 20, 21, 24, 25, 26, 27 };
+    /** Tag to lock on to when several are visible */
+    public static final int RED_PRIORITY_TAG = 10;
+    public static final int BLUE_PRIORITY_TAG = 26;
+    /** Priority tag id the limelight treats as none */
+    public static final int NO_PRIORITY_TAG = -1;
+    /** Every tag on the 2026 field */
+    public static final int[] FIELD_TAGS = IntStream.rangeClosed(1, 32).toArray();
+
+    private static final int[] BOTH_HUB_TAGS = concat(RED_HUB_TAGS, BLUE_HUB_TAGS);
+
+    private static final long RED_MASK = toMask(RED_HUB_TAGS);
+    private static final long BLUE_MASK = toMask(BLUE_HUB_TAGS);
+
+    private final String aimingCamera;
+    /** If the aiming camera can be narrowed to hub tags, false when it also feeds the pose estimator */
+    private final boolean filterAimingCamera;
+    private Optional<Alliance> alliance = Optional.empty();
+    /** Both hubs until the alliance is known */
+    private long mask = RED_MASK | BLUE_MASK;
+
+    /**
+     * Pushes the defaults right away, both hubs with no priority tag, since filters set by an earlier run stay on the
+     * camera until it reboots.
+     * @param aimingCamera limelight the shooter aims with, gets the priority tag
+     * @param localizationCameras limelights used for MegaTag2, kept on the full field filter
+     */
+    public HubTargets(String aimingCamera, String... localizationCameras) {
+        this.aimingCamera = aimingCamera;
+        this.filterAimingCamera = !Arrays.asList(localizationCameras).contains(aimingCamera);
+
+        for (String name : localizationCameras) {
+            LimelightHelpers.SetFiducialIDFiltersOverride(name, FIELD_TAGS);
+        }
+        push(BOTH_HUB_TAGS, NO_PRIORITY_TAG);
+    }
+
+    /**
+     * Checks for an alliance change and pushes the new filters if there was one. Call once per loop.
+     */
+    public void update() {
+        Optional<Alliance> current = DriverStation.getAlliance();
+        if (current.equals(alliance)) return;
+        alliance = current;
+
+        int[] tags;
+        int priority;
+        if (current.isEmpty()) {
+            // Back to both hubs if the driver station drops the alliance
+            mask = RED_MASK | BLUE_MASK;
+            tags = BOTH_HUB_TAGS;
+            priority = NO_PRIORITY_TAG;
+        } else if (current.get() == Alliance.Red) {
+            mask = RED_MASK;
+            tags = RED_HUB_TAGS;
+            priority = RED_PRIORITY_TAG;
+        } else {
+            mask = BLUE_MASK;
+            tags = BLUE_HUB_TAGS;
+            priority = BLUE_PRIORITY_TAG;
+        }
+
+        push(tags, priority);
+    }
+
+    private void push(int[] tags, int priority) {
+        if (filterAimingCamera) {
+            LimelightHelpers.SetFiducialIDFiltersOverride(aimingCamera, tags);
+        }
+        LimelightHelpers.setPriorityTagID(aimingCamera, priority);
+    }
+
+    /**
+     * @return the alliance the filters were last set for, empty until the driver station reports one
+     */
+    public Optional<Alliance> getAlliance() {
+        return alliance;
+    }
+
+    /**
+     * @param tagId april tag id
+     * @return if the tag is on our hub (either hub before the alliance is known)
+     */
+    public boolean isHubTag(int tagId) {
+        return tagId >= 0 && tagId < 64 && (mask & (1L << tagId)) != 0;
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] both = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, both, a.length, b.length);
+        return both;
+    }
+
+    private static long toMask(int[] tags) {
+        long mask = 0;
+        for (int tag : tags) {
+            mask |= 1L << tag;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,284 @@
+package frc.robot.util.vision;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import edu.wpi.first.apriltag.AprilTag;
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.util.drivers.LimelightHelpers;
+
+/**
+ * Simulation stand-in for a limelight. Works out which april tags the camera would see from the simulated robot pose
+ * and publishes tv, tx, ty, ta, tid, hb, targetpose_robotspace, the botposes and rawfiducials to the limelight's table,
+ * with configurable latency, noise and frame rate. Only use this in simulation.
+ */
+public class LimelightSim {
+    /** Side length of the black square of a 2026 april tag (meters) */
+    private static final double TAG_SIZE = Units.inchesToMeters(6.5);
+
+    private final Supplier<Pose2d> robotPose;
+    private final AprilTagFieldLayout field;
+    private final Transform3d robotToCamera;
+    private final Random random = new Random();
+
+    private double horizontalFov = 62.5;
+    private double verticalFov = 48.9;
+    private double maxDistance = 6;
+    private double framePeriod = 1.0 / 30;
+    private double pipelineLatencyMs = 20;
+    private double captureLatencyMs = 10;
+    private double angleNoiseDegrees = 0.1;
+    private double poseNoiseMeters = 0.02;
+
+    private final ArrayDeque<Frame> pending = new ArrayDeque<>();
+    private double lastCaptureTime = Double.NEGATIVE_INFINITY;
+    private double heartbeat;
+
+    private final DoublePublisher tv, tx, ty, ta, tid, tl, cl, hb;
+    private final DoubleArrayPublisher botpose, botposeBlue, botposeRed, botposeOrb, targetPose, rawFiducials;
+
+    private static class Frame {
+        double publishTime;
+        double[] values;
+        double[] pose;
+        double[] poseCentered;
+        double[] poseRed;
+        double[] targetPose;
+        double[] fiducials;
+    }
+
+    /**
+     * @param limelightName name of the limelight table to publish to
+     * @param robotPose the ground truth robot pose, not the estimate vision is correcting
+     * @param field april tag layout of the field
+     * @param robotToCamera camera position on the robot
+     */
+    public LimelightSim(String limelightName, Supplier<Pose2d> robotPose, AprilTagFieldLayout field,
+            Transform3d robotToCamera) {
+        this.robotPose = robotPose;
+        this.field = field;
+        this.robotToCamera = robotToCamera;
+
+        NetworkTable table = LimelightHelpers.getLimelightNTTable(limelightName);
+        tv = table.getDoubleTopic("tv").publish();
+        tx = table.getDoubleTopic("tx").publish();
+        ty = table.getDoubleTopic("ty").publish();
+        ta = table.getDoubleTopic("ta").publish();
+        tid = table.getDoubleTopic("tid").publish();
+        tl = table.getDoubleTopic("tl").publish();
+        cl = table.getDoubleTopic("cl").publish();
+        hb = table.getDoubleTopic("hb").publish();
+        botpose = table.getDoubleArrayTopic("botpose").publish();
+        botposeBlue = table.getDoubleArrayTopic("botpose_wpiblue").publish();
+        botposeRed = table.getDoubleArrayTopic("botpose_wpired").publish();
+        botposeOrb = table.getDoubleArrayTopic("botpose_orb_wpiblue").publish();
+        targetPose = table.getDoubleArrayTopic("targetpose_robotspace").publish();
+        rawFiducials = table.getDoubleArrayTopic("rawfiducials").publish();
+    }
+
+    /**
+     * Sets the camera field of view
+     * @param horizontal horizontal fov in degrees
+     * @param vertical vertical fov in degrees
+     * @return this
+     */
+    public LimelightSim withFov(double horizontal, double vertical) {
+        horizontalFov = horizontal;
+        verticalFov = vertical;
+        return this;
+    }
+
+    /**
+     * @param fps camera frame rate
+     * @return this
+     */
+    public LimelightSim withFrameRate(double fps) {
+        framePeriod = 1.0 / fps;
+        return this;
+    }
+
+    /**
+     * @param pipelineMs pipeline latency in milliseconds
+     * @param captureMs capture latency in milliseconds
+     * @return this
+     */
+    public LimelightSim withLatency(double pipelineMs, double captureMs) {
+        pipelineLatencyMs = pipelineMs;
+        captureLatencyMs = captureMs;
+        return this;
+    }
+
+    /**
+     * @param angleDegrees standard deviation of tx/ty noise
+     * @param poseMeters standard deviation of botpose x/y noise
+     * @return this
+     */
+    public LimelightSim withNoise(double angleDegrees, double poseMeters) {
+        angleNoiseDegrees = angleDegrees;
+        poseNoiseMeters = poseMeters;
+        return this;
+    }
+
+    /**
+     * @param meters tags further than this aren't seen
+     * @return this
+     */
+    public LimelightSim withMaxDistance(double meters) {
+        maxDistance = meters;
+        return this;
+    }
+
+    /**
+     * Captures a frame if one is due and publishes frames whose latency has passed. Call every simulation loop.
+     */
+    public void update() {
+        double now = Timer.getFPGATimestamp();
+        if (now - lastCaptureTime >= framePeriod) {
+            lastCaptureTime = now;
+            pending.add(capture(now));
+        }
+
+        while (!pending.isEmpty() && pending.peek().publishTime <= now) {
+            publish(pending.poll());
+        }
+    }
+
+    private Frame capture(double now) {
+        Pose2d robot = robotPose.get();
+        Pose3d camera = new Pose3d(robot).transformBy(robotToCamera);
+
+        List<double[]> seen = new ArrayList<>();
+        double bestArea = 0;
+        double[] best = null;
+        Pose3d bestTag = null;
+        double distanceSum = 0;
+        double areaSum = 0;
+        double span = 0;
+        List<Translation3d> seenTags = new ArrayList<>();
+
+        for (AprilTag tag : field.getTags()) {
+            Pose3d tagInCamera = tag.pose.relativeTo(camera);
+            Translation3d t = tagInCamera.getTranslation();
+            double distance = t.getNorm();
+            if (t.getX() <= 0 || distance > maxDistance) continue;
+
+            // The tag's x axis points out of its face, it must point back at the camera
+            Translation3d tagNormal = new Translation3d(1, 0, 0).rotateBy(tagInCamera.getRotation());
+            double facing = -(tagNormal.getX() * t.getX() + tagNormal.getY() * t.getY() + tagNormal.getZ() * t.getZ())
+                    / distance;
+            if (facing <= 0) continue;
+
+            double txDeg = -Math.toDegrees(Math.atan2(t.getY(), t.getX()));
+            double tyDeg = Math.toDegrees(Math.atan2(t.getZ(), t.getX()));
+            if (Math.abs(txDeg) > horizontalFov / 2 || Math.abs(tyDeg) > verticalFov / 2) continue;
+
+            double angularSize = TAG_SIZE / distance;
+            double area = 100 * angularSize * angularSize * facing
+                    / (Math.toRadians(horizontalFov) * Math.toRadians(verticalFov));
+            double robotDistance = tag.pose.getTranslation().toTranslation2d().getDistance(robot.getTranslation());
+            double ambiguity = Math.min(1, 0.1 / facing);
+
+            double[] fiducial = {
+                tag.ID,
+                txDeg + random.nextGaussian() * angleNoiseDegrees,
+                tyDeg + random.nextGaussian() * angleNoiseDegrees,
+                area, distance, robotDistance, ambiguity
+            };
+            seen.add(fiducial);
+            distanceSum += distance;
+            areaSum += area;
+            for (Translation3d other : seenTags) {
+                span = Math.max(span, other.getDistance(tag.pose.getTranslation()));
+            }
+            seenTags.add(tag.pose.getTranslation());
+            if (area > bestArea) {
+                bestArea = area;
+                best = fiducial;
+                bestTag = tag.pose;
+            }
+        }
+
+        Frame frame = new Frame();
+        frame.publishTime = now + (pipelineLatencyMs + captureLatencyMs) / 1000.0;
+        frame.values = best == null
+                ? new double[] { 0, 0, 0, 0, -1 }
+                : new double[] { 1, best[1], best[2], best[3], best[0] };
+
+        int count = seen.size();
+        frame.fiducials = new double[count * 7];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(seen.get(i), 0, frame.fiducials, i * 7, 7);
+        }
+
+        // Limelight robot space is x forward, y right, z up, the limelight publishes zeros with no target
+        frame.targetPose = new double[6];
+        if (bestTag != null) {
+            Pose3d tagInRobot = bestTag.relativeTo(new Pose3d(robot));
+            frame.targetPose[0] = tagInRobot.getX() + random.nextGaussian() * poseNoiseMeters;
+            frame.targetPose[1] = -tagInRobot.getY() + random.nextGaussian() * poseNoiseMeters;
+            frame.targetPose[2] = tagInRobot.getZ();
+            frame.targetPose[3] = Math.toDegrees(tagInRobot.getRotation().getX());
+            frame.targetPose[4] = -Math.toDegrees(tagInRobot.getRotation().getY());
+            frame.targetPose[5] = -Math.toDegrees(tagInRobot.getRotation().getZ());
+        }
+
+        if (count == 0) {
+            frame.pose = new double[0];
+            frame.poseCentered = frame.pose;
+            frame.poseRed = frame.pose;
+        } else {
+            frame.pose = new double[11 + count * 7];
+            frame.pose[0] = robot.getX() + random.nextGaussian() * poseNoiseMeters;
+            frame.pose[1] = robot.getY() + random.nextGaussian() * poseNoiseMeters;
+            frame.pose[5] = robot.getRotation().getDegrees();
+            frame.pose[6] = pipelineLatencyMs + captureLatencyMs;
+            frame.pose[7] = count;
+            frame.pose[8] = span;
+            frame.pose[9] = distanceSum / count;
+            frame.pose[10] = areaSum / count;
+            System.arraycopy(frame.fiducials, 0, frame.pose, 11, frame.fiducials.length);
+
+            // Same frame with the origin at the field center, and at the red driver station corner
+            double length = field.getFieldLength();
+            double width = field.getFieldWidth();
+            frame.poseCentered = frame.pose.clone();
+            frame.poseCentered[0] -= length / 2;
+            frame.poseCentered[1] -= width / 2;
+            frame.poseRed = frame.pose.clone();
+            frame.poseRed[0] = length - frame.pose[0];
+            frame.poseRed[1] = width - frame.pose[1];
+            frame.poseRed[5] = robot.getRotation().rotateBy(Rotation2d.k180deg).getDegrees();
+        }
+        return frame;
+    }
+
+    private void publish(Frame frame) {
+        tv.set(frame.values[0]);
+        tx.set(frame.values[1]);
+        ty.set(frame.values[2]);
+        ta.set(frame.values[3]);
+        tid.set(frame.values[4]);
+        tl.set(pipelineLatencyMs);
+        cl.set(captureLatencyMs);
+        hb.set(++heartbeat);
+        botpose.set(frame.poseCentered);
+        botposeBlue.set(frame.pose);
+        botposeRed.set(frame.poseRed);
+        botposeOrb.set(frame.pose);
+        targetPose.set(frame.targetPose);
+        rawFiducials.set(frame.fiducials);
+    }
+}
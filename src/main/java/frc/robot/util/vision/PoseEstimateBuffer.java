@@ -0,0 +1,92 @@
+package frc.robot.util.vision;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.util.Units;
+import frc.robot.util.drivers.LimelightHelpers.PoseEstimate;
+import frc.robot.util.drivers.LimelightHelpers.RawFiducial;
+
+/**
+ * Mutable, preallocated version of {@link PoseEstimate}. Filled in place by {@link PoseEstimateDecoder} so decoding
+ * a frame does not allocate.
+ */
+public class PoseEstimateBuffer {
+    /** Default number of fiducials a buffer can hold */
+    public static final int DEFAULT_TAG_CAPACITY = 16;
+
+    /** If the last decode produced a pose */
+    public boolean valid;
+    /** Field x in meters */
+    public double x;
+    /** Field y in meters */
+    public double y;
+    /** Robot yaw in degrees */
+    public double yawDegrees;
+    /** Capture time in seconds, latency already removed */
+    public double timestampSeconds;
+    /** Total latency in milliseconds */
+    public double latency;
+    public int tagCount;
+    public double tagSpan;
+    public double avgTagDist;
+    public double avgTagArea;
+    public boolean isMegaTag2;
+
+    /** Preallocated fiducials, only the first {@link #fiducialCount} are filled */
+    public final RawFiducial[] rawFiducials;
+    /** Number of filled entries in {@link #rawFiducials} */
+    public int fiducialCount;
+
+    public PoseEstimateBuffer() {
+        this(DEFAULT_TAG_CAPACITY);
+    }
+
+    /**
+     * @param tagCapacity the most fiducials this buffer will hold, extra tags in a frame are dropped
+     */
+    public PoseEstimateBuffer(int tagCapacity) {
+        rawFiducials = PoseEstimateDecoder.allocateFiducials(tagCapacity);
+    }
+
+    /** Marks the buffer as holding no pose */
+    public void clear() {
+        valid = false;
+        tagCount = 0;
+        fiducialCount = 0;
+    }
+
+    /**
+     * Copies another buffer into this one, fiducials past this buffer's capacity are dropped
+     * @param other the buffer to copy
+     */
+    public void copyFrom(PoseEstimateBuffer other) {
+        valid = other.valid;
+        x = other.x;
+        y = other.y;
+        yawDegrees = other.yawDegrees;
+        timestampSeconds = other.timestampSeconds;
+        latency = other.latency;
+        tagCount = other.tagCount;
+        tagSpan = other.tagSpan;
+        avgTagDist = other.avgTagDist;
+        avgTagArea = other.avgTagArea;
+        isMegaTag2 = other.isMegaTag2;
+        fiducialCount = Math.min(other.fiducialCount, rawFiducials.length);
+        for (int i = 0; i < fiducialCount; i++) {
+            PoseEstimateDecoder.copyFiducial(other.rawFiducials[i], rawFiducials[i]);
+        }
+    }
+
+    /**
+     * Builds a {@link Pose2d} from the buffer. This allocates, so only call it when the pose is actually used.
+     * @return the decoded pose
+     */
+    public Pose2d toPose2d() {
+        return new Pose2d(x, y, Rotation2d.fromDegrees(yawDegrees));
+    }
+
+    /** @return yaw in radians */
+    public double yawRadians() {
+        return Units.degreesToRadians(yawDegrees);
+    }
+}
@@ -0,0 +1,153 @@
+package frc.robot.util.vision;
+
+import frc.robot.util.drivers.LimelightHelpers.RawDetection;
+import frc.robot.util.drivers.LimelightHelpers.RawFiducial;
+
+/**
+ * Allocation-free decoding of limelight botpose, rawfiducials and rawdetections arrays into caller-owned objects.
+ * Array layouts match {@link frc.robot.util.drivers.LimelightHelpers}.
+ */
+public final class PoseEstimateDecoder {
+    private static final int POSE_VALUES = 11;
+    private static final int VALS_PER_FIDUCIAL = 7;
+    private static final int VALS_PER_DETECTION = 12;
+
+    private PoseEstimateDecoder() {}
+
+    /**
+     * Decodes a botpose array into a buffer
+     * @param poseArray the raw botpose array
+     * @param timestampMicros the NetworkTables timestamp of the array in microseconds
+     * @param isMegaTag2 if the array came from a botpose_orb topic
+     * @param out the buffer to fill
+     * @return false if the array was empty, out is cleared in that case
+     */
+    public static boolean decode(double[] poseArray, long timestampMicros, boolean isMegaTag2, PoseEstimateBuffer out) {
+        if (poseArray == null || poseArray.length < 6) {
+            out.clear();
+            return false;
+        }
+
+        out.valid = true;
+        out.isMegaTag2 = isMegaTag2;
+        out.x = poseArray[0];
+        out.y = poseArray[1];
+        out.yawDegrees = poseArray[5];
+        out.latency = entry(poseArray, 6);
+        out.tagCount = (int) entry(poseArray, 7);
+        out.tagSpan = entry(poseArray, 8);
+        out.avgTagDist = entry(poseArray, 9);
+        out.avgTagArea = entry(poseArray, 10);
+
+        // Convert server timestamp from microseconds to seconds and adjust for latency
+        out.timestampSeconds = (timestampMicros / 1000000.0) - (out.latency / 1000.0);
+
+        if (poseArray.length != POSE_VALUES + VALS_PER_FIDUCIAL * out.tagCount) {
+            // Don't populate fiducials, same as LimelightHelpers
+            out.fiducialCount = 0;
+        } else {
+            out.fiducialCount = fillFiducials(poseArray, POSE_VALUES, out.tagCount, out.rawFiducials);
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a rawfiducials array
+     * @param rawFiducialArray the raw array
+     * @param out preallocated fiducials, see {@link #allocateFiducials(int)}
+     * @return the number of fiducials written, 0 if the array is malformed
+     */
+    public static int decodeRawFiducials(double[] rawFiducialArray, RawFiducial[] out) {
+        if (rawFiducialArray == null || rawFiducialArray.length % VALS_PER_FIDUCIAL != 0) {
+            return 0;
+        }
+        return fillFiducials(rawFiducialArray, 0, rawFiducialArray.length / VALS_PER_FIDUCIAL, out);
+    }
+
+    /**
+     * Decodes a rawdetections array
+     * @param rawDetectionArray the raw array
+     * @param out preallocated detections, see {@link #allocateDetections(int)}
+     * @return the number of detections written, 0 if the array is malformed
+     */
+    public static int decodeRawDetections(double[] rawDetectionArray, RawDetection[] out) {
+        if (rawDetectionArray == null || rawDetectionArray.length % VALS_PER_DETECTION != 0) {
+            return 0;
+        }
+
+        int count = Math.min(rawDetectionArray.length / VALS_PER_DETECTION, out.length);
+        for (int i = 0; i < count; i++) {
+            int base = i * VALS_PER_DETECTION;
+            RawDetection d = out[i];
+            d.classId = (int) rawDetectionArray[base];
+            d.txnc = rawDetectionArray[base + 1];
+            d.tync = rawDetectionArray[base + 2];
+            d.ta = rawDetectionArray[base + 3];
+            d.corner0_X = rawDetectionArray[base + 4];
+            d.corner0_Y = rawDetectionArray[base + 5];
+            d.corner1_X = rawDetectionArray[base + 6];
+            d.corner1_Y = rawDetectionArray[base + 7];
+            d.corner2_X = rawDetectionArray[base + 8];
+            d.corner2_Y = rawDetectionArray[base + 9];
+            d.corner3_X = rawDetectionArray[base + 10];
+            d.corner3_Y = rawDetectionArray[base + 11];
+        }
+        return count;
+    }
+
+    /**
+     * Allocates reusable fiducials. Do this once, not per frame.
+     * @param capacity the number of fiducials
+     * @return the fiducial array
+     */
+    public static RawFiducial[] allocateFiducials(int capacity) {
+        RawFiducial[] fiducials = new RawFiducial[capacity];
+        for (int i = 0; i < capacity; i++) {
+            fiducials[i] = new RawFiducial(0, 0, 0, 0, 0, 0, 0);
+        }
+        return fiducials;
+    }
+
+    /**
+     * Allocates reusable detections. Do this once, not per frame.
+     * @param capacity the number of detections
+     * @return the detection array
+     */
+    public static RawDetection[] allocateDetections(int capacity) {
+        RawDetection[] detections = new RawDetection[capacity];
+        for (int i = 0; i < capacity; i++) {
+            detections[i] = new RawDetection(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        return detections;
+    }
+
+    static void copyFiducial(RawFiducial from, RawFiducial to) {
+        to.id = from.id;
+        to.txnc = from.txnc;
+        to.tync = from.tync;
+        to.ta = from.ta;
+        to.distToCamera = from.distToCamera;
+        to.distToRobot = from.distToRobot;
+        to.ambiguity = from.ambiguity;
+    }
+
+    private static int fillFiducials(double[] data, int offset, int count, RawFiducial[] out) {
+        count = Math.min(count, out.length);
+        for (int i = 0; i < count; i++) {
+            int base = offset + i * VALS_PER_FIDUCIAL;
+            RawFiducial f = out[i];
+            f.id = (int) data[base];
+            f.txnc = data[base + 1];
+            f.tync = data[base + 2];
+            f.ta = data[base + 3];
+            f.distToCamera = data[base + 4];
+            f.distToRobot = data[base + 5];
+            f.ambiguity = data[base + 6];
+        }
+        return count;
+    }
+
+    private static double entry(double[] data, int position) {
+        return data.length > position ? data[position] : 0;
+    }
+}
@@ -0,0 +1,109 @@
+package frc.robot.util.vision;
+
+import edu.wpi.first.math.util.Units;
+import frc.robot.util.PoseHistory;
+import frc.robot.util.math.ConstantVelocityFilter;
+
+/**
+ * Filters a limelight's tx/ty/ta and predicts them forward to "now" using the reported latency and the robot's
+ * heading history, so aiming loops don't chase a picture that is 30+ ms old.
+ *
+ * <p>tx is tracked as a field-relative bearing (tx minus heading) so turning the robot doesn't look like the target
+ * moving, then the current heading is added back when reading it.
+ */
+public class TargetTracker {
+    /** Drop the track after not seeing the target for this long (seconds) */
+    public static final double LOST_TIMEOUT = 0.25;
+
+    private final ConstantVelocityFilter bearing = new ConstantVelocityFilter(400, 0.25);
+    private final ConstantVelocityFilter ty = new ConstantVelocityFilter(400, 0.25);
+    private final ConstantVelocityFilter ta = new ConstantVelocityFilter(4, 0.05);
+
+    private int tid = -1;
+    private double lastHeartbeat = Double.NaN;
+    private double lastCaptureTime;
+    /** Unwrapped heading from the pose history, so the bearing stays continuous */
+    private double headingDegrees;
+    private double nowSeconds;
+    private final PoseHistory.Sample robotState = new PoseHistory.Sample();
+
+    /**
+     * Feeds in this loop's vision and odometry. Call once per loop, after odometry has been updated.
+     * @param snapshot this loop's vision snapshot
+     * @param history odometry history, used for the heading when the frame was captured
+     * @param nowSeconds current FPGA time in seconds
+     */
+    public void update(VisionSnapshot snapshot, PoseHistory history, double nowSeconds) {
+        if (!history.sample(nowSeconds, robotState)) return;
+        headingDegrees = Units.radiansToDegrees(robotState.theta);
+        this.nowSeconds = nowSeconds;
+
+        if (snapshot.tv && snapshot.heartbeat != lastHeartbeat) {
+            lastHeartbeat = snapshot.heartbeat;
+            double captureTime = snapshot.timestampSeconds - snapshot.totalLatencySeconds();
+            // Heading when the picture was taken
+            history.sample(captureTime, robotState);
+            double captureHeading = Units.radiansToDegrees(robotState.theta);
+
+            if (snapshot.tid != tid) {
+                tid = snapshot.tid;
+                clearFilters();
+            }
+
+            double dt = captureTime - lastCaptureTime;
+            bearing.predict(dt);
+            ty.predict(dt);
+            ta.predict(dt);
+            // Positive tx is to the right, positive heading is CCW, so turning left raises tx
+            bearing.correct(snapshot.tx - captureHeading);
+            ty.correct(snapshot.ty);
+            ta.correct(snapshot.ta);
+            lastCaptureTime = captureTime;
+        } else if (hasTarget() && nowSeconds - lastCaptureTime > LOST_TIMEOUT) {
+            tid = -1;
+            clearFilters();
+        }
+    }
+
+    private void clearFilters() {
+        bearing.clear();
+        ty.clear();
+        ta.clear();
+    }
+
+    /**
+     * @return if a target is being tracked
+     */
+    public boolean hasTarget() {
+        return bearing.isInitialized();
+    }
+
+    /**
+     * @return id of the tracked april tag, -1 if none
+     */
+    public int getTid() {
+        return tid;
+    }
+
+    /**
+     * @return horizontal offset to the target right now, in degrees
+     */
+    public double getTx() {
+        return bearing.getPositionAhead(nowSeconds - lastCaptureTime) + headingDegrees;
+    }
+
+    /**
+     * @return vertical offset to the target right now, in degrees
+     */
+    public double getTy() {
+        return ty.getPositionAhead(nowSeconds - lastCaptureTime);
+    }
+
+    /**
+     * Area isn't extrapolated, a shrinking target would reach zero while coasting between frames
+     * @return filtered target area at the last frame (0-100% of image)
+     */
+    public double getTa() {
+        return Math.max(0, ta.getPosition());
+    }
+}
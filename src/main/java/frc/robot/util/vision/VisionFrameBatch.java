@@ -0,0 +1,52 @@
+package frc.robot.util.vision;
+
+import frc.robot.util.drivers.LimelightHelpers.RawFiducial;
+
+/**
+ * Every vision frame a limelight published since the last robot loop, oldest first.
+ * All entries are preallocated and overwritten on the next poll, so copy anything that needs to be kept.
+ */
+public class VisionFrameBatch {
+    /** Name of the limelight the frames came from */
+    public final String limelightName;
+
+    /** MegaTag2 pose frames, only the first {@link #poseCount} are filled */
+    public final PoseEstimateBuffer[] poses;
+    public int poseCount;
+
+    /** rawfiducials frames, only the first {@link #fiducialFrameCount} are filled */
+    public final FiducialFrame[] fiducialFrames;
+    public int fiducialFrameCount;
+
+    /**
+     * @param limelightName name of the limelight
+     * @param capacity the most frames of each kind kept per loop
+     */
+    public VisionFrameBatch(String limelightName, int capacity) {
+        this.limelightName = limelightName;
+        poses = new PoseEstimateBuffer[capacity];
+        fiducialFrames = new FiducialFrame[capacity];
+        for (int i = 0; i < capacity; i++) {
+            poses[i] = new PoseEstimateBuffer();
+            fiducialFrames[i] = new FiducialFrame(PoseEstimateBuffer.DEFAULT_TAG_CAPACITY);
+        }
+    }
+
+    /** Empties the batch */
+    public void clear() {
+        poseCount = 0;
+        fiducialFrameCount = 0;
+    }
+
+    /** One timestamped rawfiducials frame */
+    public static class FiducialFrame {
+        /** Time the frame was published, in seconds */
+        public double timestampSeconds;
+        public final RawFiducial[] fiducials;
+        public int count;
+
+        public FiducialFrame(int tagCapacity) {
+            fiducials = PoseEstimateDecoder.allocateFiducials(tagCapacity);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package frc.robot.util.vision;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.networktables.TimestampedDoubleArray;
+import frc.robot.util.drivers.LimelightHelpers;
+
+/**
+ * Reads every botpose_orb_wpiblue and rawfiducials frame a limelight published since the last call, instead of only
+ * the newest value. At camera rates above 50 Hz the frames in between loops would otherwise be dropped.
+ */
+public class VisionFrameQueue {
+    /** Default frames kept per loop, 8 covers a 400 fps camera at 50 Hz with no drops */
+    public static final int DEFAULT_CAPACITY = 8;
+
+    private final DoubleArraySubscriber botposeSub;
+    private final DoubleArraySubscriber rawFiducialsSub;
+    private final VisionFrameBatch batch;
+    private final List<Consumer<VisionFrameBatch>> consumers = new ArrayList<>();
+
+    public VisionFrameQueue(String limelightName) {
+        this(limelightName, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param limelightName name of the limelight
+     * @param capacity the most frames kept between polls, older frames are dropped first
+     */
+    public VisionFrameQueue(String limelightName, int capacity) {
+        NetworkTable table = LimelightHelpers.getLimelightNTTable(limelightName);
+        // keepDuplicates so identical frames still show up as separate measurements
+        botposeSub = table.getDoubleArrayTopic("botpose_orb_wpiblue").subscribe(new double[0],
+                PubSubOption.keepDuplicates(true), PubSubOption.pollStorage(capacity));
+        rawFiducialsSub = table.getDoubleArrayTopic("rawfiducials").subscribe(new double[0],
+                PubSubOption.keepDuplicates(true), PubSubOption.pollStorage(capacity));
+        batch = new VisionFrameBatch(limelightName, capacity);
+    }
+
+    /**
+     * Adds a consumer that gets each batch after {@link #poll()}
+     * @param consumer the consumer
+     */
+    public void addConsumer(Consumer<VisionFrameBatch> consumer) {
+        consumers.add(consumer);
+    }
+
+    /**
+     * Drains the NetworkTables queues, decodes every frame and hands the batch to each consumer.
+     * Call once per robot loop.
+     * @return the decoded batch, overwritten on the next poll
+     */
+    public VisionFrameBatch poll() {
+        read();
+        for (Consumer<VisionFrameBatch> consumer : consumers) {
+            consumer.accept(batch);
+        }
+        return batch;
+    }
+
+    /**
+     * Drains and decodes the queues without notifying consumers. Safe to call from a worker thread as long as only
+     * one thread reads a given queue.
+     * @return the decoded batch, overwritten on the next read
+     */
+    public VisionFrameBatch read() {
+        batch.clear();
+
+        // pollStorage matches the batch capacity, so the queues never hold more frames than fit
+        for (TimestampedDoubleArray frame : botposeSub.readQueue()) {
+            if (batch.poseCount == batch.poses.length) {
+                break;
+            }
+            PoseEstimateBuffer pose = batch.poses[batch.poseCount];
+            if (PoseEstimateDecoder.decode(frame.value, frame.timestamp, true, pose) && pose.tagCount > 0) {
+                batch.poseCount++;
+            }
+        }
+
+        for (TimestampedDoubleArray frame : rawFiducialsSub.readQueue()) {
+            if (batch.fiducialFrameCount == batch.fiducialFrames.length) {
+                break;
+            }
+            VisionFrameBatch.FiducialFrame fiducials = batch.fiducialFrames[batch.fiducialFrameCount++];
+            fiducials.timestampSeconds = frame.timestamp / 1000000.0;
+            fiducials.count = PoseEstimateDecoder.decodeRawFiducials(frame.value, fiducials.fiducials);
+        }
+
+        return batch;
+    }
+
+    /** Stops listening, the queue can't be used after this */
+    public void close() {
+        botposeSub.close();
+        rawFiducialsSub.close();
+    }
+}
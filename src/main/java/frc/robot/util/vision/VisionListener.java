@@ -0,0 +1,86 @@
+package frc.robot.util.vision;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.robot.util.drivers.LimelightHelpers;
+
+/**
+ * Event-driven alternative to polling. A NetworkTables listener decodes each botpose_orb_wpiblue frame on the
+ * listener thread and hands it to the robot loop through a lock-free triple buffer, so the loop never decodes or
+ * blocks. Opt in with {@link frc.robot.Constants#VISION_EVENT_MODE}.
+ */
+public class VisionListener implements AutoCloseable {
+    private static final int INDEX_MASK = 0b11;
+    private static final int NEW_DATA = 0b100;
+
+    private final DoubleArraySubscriber botposeSub;
+    private final int listenerHandle;
+
+    private final PoseEstimateBuffer[] buffers = {
+        new PoseEstimateBuffer(), new PoseEstimateBuffer(), new PoseEstimateBuffer()
+    };
+    /** Index of the buffer between the writer and reader, plus the NEW_DATA flag */
+    private final AtomicInteger middle = new AtomicInteger(1);
+    /** Only touched by the listener thread */
+    private int writeIndex = 0;
+    /** Only touched by the robot loop */
+    private int readIndex = 2;
+
+    /**
+     * Starts listening, decoding begins on the next published frame
+     * @param limelightName name of the limelight
+     */
+    public VisionListener(String limelightName) {
+        botposeSub = LimelightHelpers.getLimelightNTTable(limelightName)
+                .getDoubleArrayTopic("botpose_orb_wpiblue").subscribe(new double[0]);
+        listenerHandle = NetworkTableInstance.getDefault().addListener(botposeSub,
+                EnumSet.of(NetworkTableEvent.Kind.kValueAll), this::onFrame);
+    }
+
+    private void onFrame(NetworkTableEvent event) {
+        PoseEstimateBuffer out = buffers[writeIndex];
+        if (!PoseEstimateDecoder.decode(event.valueData.value.getDoubleArray(), event.valueData.value.getTime(),
+                true, out) || out.tagCount == 0) {
+            return;
+        }
+        // Publish the filled buffer and take back whichever one was in the middle
+        writeIndex = middle.getAndSet(writeIndex | NEW_DATA) & INDEX_MASK;
+    }
+
+    /**
+     * @return true if a frame is waiting for {@link #update()}
+     */
+    public boolean hasNewFrame() {
+        return (middle.get() & NEW_DATA) != 0;
+    }
+
+    /**
+     * Swaps in the newest decoded frame if there is one. Never blocks, call from the robot loop.
+     * @return true if a new frame arrived since the last call
+     */
+    public boolean update() {
+        if (!hasNewFrame()) {
+            return false;
+        }
+        readIndex = middle.getAndSet(readIndex) & INDEX_MASK;
+        return true;
+    }
+
+    /**
+     * The frame picked up by the last {@link #update()}. Only valid on the robot loop thread until the next update.
+     * @return the latest decoded frame, check {@link PoseEstimateBuffer#valid}
+     */
+    public PoseEstimateBuffer get() {
+        return buffers[readIndex];
+    }
+
+    @Override
+    public void close() {
+        NetworkTableInstance.getDefault().removeListener(listenerHandle);
+        botposeSub.close();
+    }
+}
@@ -0,0 +1,19 @@
+package frc.robot.util.vision;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+/**
+ * A stage that scores a vision measurement before it is fused into odometry.
+ */
+@FunctionalInterface
+public interface VisionMeasurementFilter {
+    /**
+     * Scores a measurement
+     * @param measurement the measurement
+     * @param odometryPose current estimated pose of the robot, not the pose at capture time
+     * @param yawRateDegrees robot yaw rate in degrees per second
+     * @param nowSeconds current FPGA time in seconds
+     * @return trust weight, 1 for full trust, 0 or less to reject. The standard deviation is divided by this.
+     */
+    double score(PoseEstimateBuffer measurement, Pose2d odometryPose, double yawRateDegrees, double nowSeconds);
+}
@@ -0,0 +1,224 @@
+package frc.robot.util.vision;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import edu.wpi.first.networktables.MultiSubscriber;
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTableValue;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Records every update to a limelight's NetworkTables topics, with timestamps, into a compact binary file that
+ * {@link VisionReplayer} can play back. Updates are encoded on the NetworkTables listener thread and written by a low
+ * priority background thread, so a slow flash write never stalls other listeners. If the writer falls behind, updates
+ * are dropped rather than waiting.
+ *
+ * <p>File format (big endian): int {@link #MAGIC}, short {@link #VERSION}, then records. A topic record is
+ * byte {@link #RECORD_TOPIC}, short id, UTF name (relative to the table). A value record is byte {@link #RECORD_VALUE},
+ * short id, long timestamp (microseconds), byte type, then the payload.
+ */
+public class VisionRecorder implements AutoCloseable {
+    public static final int MAGIC = 0x4C4C5243; // "LLRC"
+    public static final short VERSION = 1;
+
+    static final byte RECORD_TOPIC = 0;
+    static final byte RECORD_VALUE = 1;
+
+    static final byte TYPE_DOUBLE = 0;
+    static final byte TYPE_DOUBLE_ARRAY = 1;
+    static final byte TYPE_STRING = 2;
+    static final byte TYPE_STRING_ARRAY = 3;
+
+    /** Tells the writer thread to finish */
+    private static final byte[] END = new byte[0];
+
+    private final NetworkTableInstance instance;
+    private final String prefix;
+    private final DataOutputStream out;
+    private final MultiSubscriber subscriber;
+    private final int listenerHandle;
+    private final Thread writer;
+    private final BlockingQueue<byte[]> pending = new ArrayBlockingQueue<>(1024);
+
+    /** Only touched by the listener thread */
+    private final Map<String, Short> topicIds = new HashMap<>();
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+    private final DataOutputStream record = new DataOutputStream(recordBytes);
+
+    /** Set once recording stops, on close or a write error */
+    private volatile boolean stopped = false;
+    private int dropped = 0;
+
+    /**
+     * Starts recording
+     * @param instance the NetworkTables instance to record from
+     * @param limelightName name of the limelight table
+     * @param file the file to write, overwritten
+     * @throws IOException if the file can't be opened
+     */
+    public VisionRecorder(NetworkTableInstance instance, String limelightName, File file) throws IOException {
+        this.instance = instance;
+        prefix = "/" + limelightName + "/";
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+
+        writer = new Thread(this::run, "VisionRecorder");
+        writer.setDaemon(true);
+        writer.setPriority(Thread.MIN_PRIORITY);
+        writer.start();
+
+        // sendAll so no update is merged away before we see it
+        subscriber = new MultiSubscriber(instance, new String[] { prefix }, PubSubOption.sendAll(true));
+        listenerHandle = instance.addListener(subscriber, EnumSet.of(NetworkTableEvent.Kind.kValueAll),
+                this::onValue);
+    }
+
+    private synchronized void onValue(NetworkTableEvent event) {
+        if (stopped) return;
+
+        NetworkTableValue value = event.valueData.value;
+        byte type;
+        switch (value.getType()) {
+            case kDouble:
+                type = TYPE_DOUBLE;
+                break;
+            case kDoubleArray:
+                type = TYPE_DOUBLE_ARRAY;
+                break;
+            case kString:
+                type = TYPE_STRING;
+                break;
+            case kStringArray:
+                type = TYPE_STRING_ARRAY;
+                break;
+            default:
+                return;
+        }
+
+        try {
+            recordBytes.reset();
+            // A new topic's record goes out with its first value, so a dropped value can't orphan later ones
+            String name = event.valueData.getTopic().getName().substring(prefix.length());
+            Short id = topicIds.get(name);
+            boolean newTopic = id == null;
+            if (newTopic) {
+                id = (short) topicIds.size();
+                record.writeByte(RECORD_TOPIC);
+                record.writeShort(id);
+                record.writeUTF(name);
+            }
+
+            record.writeByte(RECORD_VALUE);
+            record.writeShort(id);
+            record.writeLong(value.getTime());
+            record.writeByte(type);
+            switch (type) {
+                case TYPE_DOUBLE:
+                    record.writeDouble(value.getDouble());
+                    break;
+                case TYPE_DOUBLE_ARRAY:
+                    double[] doubles = value.getDoubleArray();
+                    record.writeInt(doubles.length);
+                    for (double d : doubles) {
+                        record.writeDouble(d);
+                    }
+                    break;
+                case TYPE_STRING:
+                    writeString(value.getString());
+                    break;
+                default:
+                    String[] strings = value.getStringArray();
+                    record.writeInt(strings.length);
+                    for (String s : strings) {
+                        writeString(s);
+                    }
+                    break;
+            }
+
+            if (pending.offer(recordBytes.toByteArray())) {
+                if (newTopic) topicIds.put(name, id);
+            } else {
+                dropped++;
+            }
+        } catch (IOException e) {
+            // Writing to memory, only a string over 2 GB gets here
+            DriverStation.reportWarning("Vision recording skipped an update: " + e.getMessage(), false);
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                byte[] bytes = pending.take();
+                if (bytes == END) break;
+                out.write(bytes);
+                if (pending.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            stopped = true;
+            DriverStation.reportWarning("Vision recording stopped: " + e.getMessage(), false);
+        } finally {
+            try {
+                out.close();
+            } catch (IOException e) {
+                DriverStation.reportWarning("Vision recording not closed cleanly: " + e.getMessage(), false);
+            }
+        }
+    }
+
+    /** writeUTF is limited to 64k, the json dump can be bigger */
+    private void writeString(String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        record.writeInt(bytes.length);
+        record.write(bytes);
+    }
+
+    /**
+     * @return updates dropped because the writer fell behind
+     */
+    public synchronized int getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * Stops recording, then waits for everything queued to be written and the file to be closed
+     * @throws IOException if interrupted before the file was closed
+     */
+    @Override
+    public void close() throws IOException {
+        instance.removeListener(listenerHandle);
+        subscriber.close();
+        // Taking the lock waits out a callback that is still running
+        synchronized (this) {
+            stopped = true;
+        }
+
+        try {
+            // The writer stops draining if a write fails, don't wait on a full queue then
+            while (writer.isAlive() && !pending.offer(END, 100, TimeUnit.MILLISECONDS)) {}
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while closing the recording", e);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package frc.robot.util.vision;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.networktables.GenericPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTablesJNI;
+
+/**
+ * Plays a {@link VisionRecorder} file back into a NetworkTables instance, at real time or any speed, so vision code
+ * can be benchmarked and regression tested against real match footage without a camera.
+ */
+public class VisionReplayer {
+    private final List<String> topicNames = new ArrayList<>();
+    private final List<Event> events = new ArrayList<>();
+
+    private static class Event {
+        final int topic;
+        final long timestamp;
+        final byte type;
+        final Object value;
+
+        Event(int topic, long timestamp, byte type, Object value) {
+            this.topic = topic;
+            this.timestamp = timestamp;
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Loads a recording into memory
+     * @param file the recording
+     * @throws IOException if the file can't be read or isn't a recording
+     */
+    public VisionReplayer(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != VisionRecorder.MAGIC || in.readShort() != VisionRecorder.VERSION) {
+                throw new IOException("not a vision recording: " + file);
+            }
+
+            while (true) {
+                byte record;
+                try {
+                    record = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                int id = in.readShort();
+                if (record == VisionRecorder.RECORD_TOPIC) {
+                    String name = in.readUTF();
+                    while (topicNames.size() <= id) {
+                        topicNames.add(null);
+                    }
+                    topicNames.set(id, name);
+                    continue;
+                }
+
+                long timestamp = in.readLong();
+                byte type = in.readByte();
+                events.add(new Event(id, timestamp, type, readValue(in, type)));
+            }
+        }
+    }
+
+    private static Object readValue(DataInputStream in, byte type) throws IOException {
+        switch (type) {
+            case VisionRecorder.TYPE_DOUBLE:
+                return in.readDouble();
+            case VisionRecorder.TYPE_DOUBLE_ARRAY:
+                double[] doubles = new double[in.readInt()];
+                for (int i = 0; i < doubles.length; i++) {
+                    doubles[i] = in.readDouble();
+                }
+                return doubles;
+            case VisionRecorder.TYPE_STRING:
+                return readString(in);
+            case VisionRecorder.TYPE_STRING_ARRAY:
+                String[] strings = new String[in.readInt()];
+                for (int i = 0; i < strings.length; i++) {
+                    strings[i] = readString(in);
+                }
+                return strings;
+            default:
+                throw new IOException("unknown value type " + type);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return number of recorded updates
+     */
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * @return length of the recording in seconds
+     */
+    public double duration() {
+        if (events.isEmpty()) return 0;
+        return (events.get(events.size() - 1).timestamp - events.get(0).timestamp) / 1000000.0;
+    }
+
+    /**
+     * Publishes every recorded update on the calling thread, keeping the recorded spacing scaled by speed. Update
+     * timestamps are shifted to start now but keep their recorded spacing at any speed, so decoders see the same
+     * frame intervals and latencies as the robot did.
+     * @param instance the NetworkTables instance to publish to, usually a local test instance
+     * @param limelightName name of the table to publish to
+     * @param speed 1 for real time, 2 for double speed, {@link Double#POSITIVE_INFINITY} for as fast as possible
+     * @throws InterruptedException if interrupted while waiting for the next update
+     */
+    public void play(NetworkTableInstance instance, String limelightName, double speed) throws InterruptedException {
+        if (events.isEmpty()) return;
+
+        NetworkTable table = instance.getTable(limelightName);
+        GenericPublisher[] publishers = new GenericPublisher[topicNames.size()];
+
+        long firstRecorded = events.get(0).timestamp;
+        long startNanos = System.nanoTime();
+        long startNt = NetworkTablesJNI.now();
+
+        for (Event event : events) {
+            long offsetMicros = event.timestamp - firstRecorded;
+            long waitNanos = (long) (offsetMicros * 1000 / speed) - (System.nanoTime() - startNanos);
+            if (waitNanos > 0) {
+                Thread.sleep(waitNanos / 1000000, (int) (waitNanos % 1000000));
+            }
+
+            GenericPublisher publisher = publishers[event.topic];
+            if (publisher == null) {
+                publisher = table.getTopic(topicNames.get(event.topic)).genericPublish(typeString(event.type));
+                publishers[event.topic] = publisher;
+            }
+
+            long time = startNt + offsetMicros;
+            switch (event.type) {
+                case VisionRecorder.TYPE_DOUBLE:
+                    publisher.setDouble((Double) event.value, time);
+                    break;
+                case VisionRecorder.TYPE_DOUBLE_ARRAY:
+                    publisher.setDoubleArray((double[]) event.value, time);
+                    break;
+                case VisionRecorder.TYPE_STRING:
+                    publisher.setString((String) event.value, time);
+                    break;
+                default:
+                    publisher.setStringArray((String[]) event.value, time);
+                    break;
+            }
+        }
+
+        for (GenericPublisher publisher : publishers) {
+            if (publisher != null) {
+                publisher.close();
+            }
+        }
+    }
+
+    private static String typeString(byte type) {
+        switch (type) {
+            case VisionRecorder.TYPE_DOUBLE:
+                return "double";
+            case VisionRecorder.TYPE_DOUBLE_ARRAY:
+                return "double[]";
+            case VisionRecorder.TYPE_STRING:
+                return "string";
+            default:
+                return "string[]";
+        }
+    }
+}
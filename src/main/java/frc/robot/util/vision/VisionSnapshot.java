@@ -0,0 +1,127 @@
+package frc.robot.util.vision;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.NetworkTable;
+import frc.robot.Constants;
+import frc.robot.util.drivers.LimelightHelpers;
+
+/**
+ * An immutable copy of a limelight's targeting values for one robot loop.
+ * Call {@link #update(String)} once at the start of the loop, then read the same frame everywhere with {@link #get(String)}.
+ */
+public final class VisionSnapshot {
+    /** Snapshot used before the first update, nothing in view */
+    public static final VisionSnapshot EMPTY = new VisionSnapshot(false, 0, 0, 0, -1, 0, 0, 0, 0, new double[0]);
+
+    private static final Map<String, Subscribers> subscribers = new ConcurrentHashMap<>();
+    private static final Map<String, VisionSnapshot> latest = new ConcurrentHashMap<>();
+
+    /** If the limelight has a valid target */
+    public final boolean tv;
+    /** Horizontal offset to the target in degrees */
+    public final double tx;
+    /** Vertical offset to the target in degrees */
+    public final double ty;
+    /** Target area (0-100% of image) */
+    public final double ta;
+    /** Primary april tag id in view, -1 if none */
+    public final int tid;
+    /** Pipeline latency in milliseconds */
+    public final double latencyPipeline;
+    /** Capture latency in milliseconds */
+    public final double latencyCapture;
+    /** Frame counter the limelight increments once per processed frame, identifies new frames */
+    public final double heartbeat;
+    /** Time the heartbeat was last published, in seconds (FPGA time base) */
+    public final double timestampSeconds;
+    /**
+     * Primary tag pose in robot space { x, y, z, roll, pitch, yaw } (meters, degrees), empty if none. Don't modify.
+     */
+    public final double[] targetPoseRobotSpace;
+
+    private VisionSnapshot(boolean tv, double tx, double ty, double ta, int tid,
+            double latencyPipeline, double latencyCapture, double heartbeat, double timestampSeconds,
+            double[] targetPoseRobotSpace) {
+        this.tv = tv;
+        this.tx = tx;
+        this.ty = ty;
+        this.ta = ta;
+        this.tid = tid;
+        this.latencyPipeline = latencyPipeline;
+        this.latencyCapture = latencyCapture;
+        this.heartbeat = heartbeat;
+        this.timestampSeconds = timestampSeconds;
+        this.targetPoseRobotSpace = targetPoseRobotSpace;
+    }
+
+    /**
+     * Total latency from image capture to publish
+     * @return latency in seconds
+     */
+    public double totalLatencySeconds() {
+        return (latencyPipeline + latencyCapture) / 1000.0;
+    }
+
+    /**
+     * Reads a new snapshot from NetworkTables. Call this once per loop, before the command scheduler runs.
+     * @param limelightName name of the limelight
+     * @return the new snapshot
+     */
+    public static VisionSnapshot update(String limelightName) {
+        Subscribers subs = subscribers.computeIfAbsent(limelightName, Subscribers::new);
+        VisionSnapshot snapshot = new VisionSnapshot(
+                subs.tv.get() == 1.0,
+                subs.tx.get(),
+                subs.ty.get(),
+                subs.ta.get(),
+                (int) subs.tid.get(),
+                subs.tl.get(),
+                subs.cl.get(),
+                subs.hb.get(),
+                // NetworkTables drops repeated values, tx doesn't change when the robot and target are still
+                subs.hb.getLastChange() / 1000000.0,
+                subs.targetPoseRobotSpace.get());
+        latest.put(limelightName, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Gets the snapshot taken this loop
+     * @param limelightName name of the limelight
+     * @return the latest snapshot, or {@link #EMPTY} if {@link #update(String)} was never called
+     */
+    public static VisionSnapshot get(String limelightName) {
+        return latest.getOrDefault(limelightName, EMPTY);
+    }
+
+    /**
+     * Gets the snapshot taken this loop for the main limelight
+     * @return the latest snapshot
+     */
+    public static VisionSnapshot get() {
+        return get(Constants.LIMELIGHT_NAME);
+    }
+
+    /** Cached typed subscribers so each topic is only resolved once */
+    private static final class Subscribers {
+        final DoubleSubscriber tv, tx, ty, ta, tid, tl, cl, hb;
+        final DoubleArraySubscriber targetPoseRobotSpace;
+
+        Subscribers(String limelightName) {
+            NetworkTable table = LimelightHelpers.getLimelightNTTable(limelightName);
+            tv = table.getDoubleTopic("tv").subscribe(0.0);
+            tx = table.getDoubleTopic("tx").subscribe(0.0);
+            ty = table.getDoubleTopic("ty").subscribe(0.0);
+            ta = table.getDoubleTopic("ta").subscribe(0.0);
+            tid = table.getDoubleTopic("tid").subscribe(-1.0);
+            tl = table.getDoubleTopic("tl").subscribe(0.0);
+            cl = table.getDoubleTopic("cl").subscribe(0.0);
+            hb = table.getDoubleTopic("hb").subscribe(0.0);
+            targetPoseRobotSpace = table.getDoubleArrayTopic("targetpose_robotspace").subscribe(new double[0]);
+        }
+    }
+}
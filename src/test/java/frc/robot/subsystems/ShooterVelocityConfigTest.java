@@ -0,0 +1,55 @@
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.revrobotics.PersistMode;
+import com.revrobotics.REVLibError;
+import com.revrobotics.ResetMode;
+import com.revrobotics.sim.SparkMaxSim;
+import com.revrobotics.spark.SparkBase.ControlType;
+import com.revrobotics.spark.SparkLowLevel.MotorType;
+import com.revrobotics.spark.SparkMax;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+
+/**
+ * Applies the shooter's onboard velocity config to a simulated SparkMax, so the REVLib calls are exercised by the
+ * build and not only on the robot.
+ */
+class ShooterVelocityConfigTest {
+    /** Unused CAN id, so the test doesn't share a simulated device with anything else */
+    private static final int CAN_ID = 61;
+
+    @BeforeAll
+    static void enableRobot() {
+        assertTrue(HAL.initialize(500, 0));
+        DriverStationSim.setEnabled(true);
+        DriverStationSim.notifyNewData();
+    }
+
+    @Test
+    void velocityLoopRespectsOutputRange() {
+        try (SparkMax spark = new SparkMax(CAN_ID, MotorType.kBrushless)) {
+            assertEquals(REVLibError.kOk, spark.configure(ShooterSubsystem.velocityConfig(),
+                    ResetMode.kResetSafeParameters, PersistMode.kNoPersistParameters));
+            SparkMaxSim sim = new SparkMaxSim(spark, DCMotor.getNEO(1));
+
+            spark.getClosedLoopController().setSetpoint(3000, ControlType.kVelocity);
+            for (int i = 0; i < 5; i++) {
+                sim.iterate(0, 12, TimedRobot.kDefaultPeriod);
+            }
+
+            // Far below the setpoint, so the loop should be pushing as hard as it is allowed
+            double output = sim.getAppliedOutput();
+            assertTrue(output > 0, "no output toward the setpoint: " + output);
+            assertTrue(output <= ShooterSubsystem.MAX_OUTPUT + 1e-3, "output above the range: " + output);
+        }
+    }
+}
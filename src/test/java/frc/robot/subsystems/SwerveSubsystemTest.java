@@ -0,0 +1,63 @@
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.util.PoseHistory;
+
+/**
+ * Runs the simulated drivebase from the deploy config and checks its pose history across resets.
+ */
+class SwerveSubsystemTest {
+    private static final double PERIOD = 0.02;
+    private static SwerveSubsystem drivebase;
+
+    @BeforeAll
+    static void createDrivebase() {
+        assertTrue(HAL.initialize(500, 0));
+        SimHooks.pauseTiming();
+        drivebase = new SwerveSubsystem(new File(Filesystem.getDeployDirectory(), "swerve/neo"));
+    }
+
+    @AfterAll
+    static void resumeTiming() {
+        SimHooks.resumeTiming();
+    }
+
+    @Test
+    void zeroGyroForgetsOldHeading() {
+        drivebase.resetOdometry(new Pose2d(2, 3, Rotation2d.fromDegrees(90)));
+        runLoops(10);
+        double beforeZero = Timer.getFPGATimestamp() - 3 * PERIOD;
+        PoseHistory.Sample sample = new PoseHistory.Sample();
+        assertTrue(drivebase.getPoseHistory().sample(beforeZero, sample));
+        assertEquals(Math.PI / 2, sample.theta, 1e-3);
+
+        drivebase.zeroGyro();
+        runLoops(1);
+
+        // A frame captured before the zero must not be matched to the old heading
+        assertTrue(drivebase.getPoseHistory().sample(beforeZero, sample));
+        assertEquals(0, sample.theta, 1e-3);
+        assertEquals(1, drivebase.getPoseHistory().size());
+    }
+
+    private static void runLoops(int loops) {
+        for (int i = 0; i < loops; i++) {
+            SimHooks.stepTiming(PERIOD);
+            drivebase.periodic();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package frc.robot.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures heap allocation on the current thread, for tests that check a hot path doesn't allocate.
+ */
+public final class Allocations {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Allocations() {}
+
+    /**
+     * Runs the task enough times for the JIT to compile it, then measures
+     * @param task the code to measure
+     * @param warmup runs before measuring
+     * @param iterations runs while measuring
+     * @return bytes allocated by the measured runs, less the cost of measuring
+     */
+    public static long allocatedBytes(Runnable task, int warmup, int iterations) {
+        for (int i = 0; i < warmup; i++) {
+            task.run();
+        }
+
+        long id = Thread.currentThread().getId();
+        // Cost of the measurement itself
+        long before = THREADS.getThreadAllocatedBytes(id);
+        long overhead = THREADS.getThreadAllocatedBytes(id) - before;
+
+        before = THREADS.getThreadAllocatedBytes(id);
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        long after = THREADS.getThreadAllocatedBytes(id);
+        return Math.max(0, after - before - overhead);
+    }
+}
@@ -0,0 +1,109 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+
+/**
+ * Checks {@link ShotSolver} against the tables it reads, and that solving is cheap enough to run every loop.
+ */
+class ShotSolverTest {
+    private static final double HUB_X = 4.6, HUB_Y = 4.0;
+
+    @BeforeAll
+    static void loadTables() {
+        assertTrue(HAL.initialize(500, 0));
+        ShooterDistanceMatrix.InitializeMatrix();
+    }
+
+    @Test
+    void stationaryShotAimsAtHub() {
+        ShotSolver solver = new ShotSolver();
+        assertTrue(solver.solve(1.0, 2.0, 0, 0, HUB_X, HUB_Y));
+
+        double range = Math.hypot(HUB_X - 1.0, HUB_Y - 2.0) * 100;
+        assertEquals(Math.atan2(HUB_Y - 2.0, HUB_X - 1.0), solver.getHeadingRadians(), 1e-9);
+        assertEquals(range, solver.getVirtualDistance(), 1e-6);
+        assertEquals(ShooterDistanceMatrix.get(range), solver.getFlywheelSpeed(), 1e-9);
+        assertEquals(ShooterDistanceMatrix.getTimeOfFlight(range), solver.getTimeOfFlight(), 1e-9);
+    }
+
+    @Test
+    void movingShotLeadsTheHub() {
+        ShotSolver solver = new ShotSolver();
+        double vx = 0, vy = 1.5;
+        assertTrue(solver.solve(1.0, 4.0, vx, vy, HUB_X, HUB_Y));
+
+        // Driving left of the hub line, so aim right of the hub
+        assertTrue(solver.getHeadingRadians() < 0);
+        double tof = solver.getTimeOfFlight();
+        double targetX = HUB_X - 1.0 - vx * tof;
+        double targetY = HUB_Y - 4.0 - vy * tof;
+        assertEquals(Math.hypot(targetX, targetY) * 100, solver.getVirtualDistance(), 1e-6);
+        assertEquals(ShooterDistanceMatrix.getTimeOfFlight(solver.getVirtualDistance()), tof,
+                ShotSolver.TOLERANCE);
+        double radialVelocity = (vx * (HUB_X - 1.0) + vy * (HUB_Y - 4.0)) / Math.hypot(HUB_X - 1.0, HUB_Y - 4.0);
+        assertEquals(radialVelocity, solver.getRadialVelocity(), 1e-9);
+        assertEquals(ShooterDistanceMatrix.get(solver.getVirtualDistance(), radialVelocity), solver.getFlywheelSpeed(),
+                1e-9);
+    }
+
+    @Test
+    void solveDoesNotAllocate() {
+        ShotSolver solver = new ShotSolver();
+        double[] phase = new double[1];
+
+        long bytes = Allocations.allocatedBytes(() -> {
+            phase[0] += 0.01;
+            solver.solve(2 + Math.sin(phase[0]), 3, 2 * Math.cos(phase[0]), 1, HUB_X, HUB_Y);
+        }, 20_000, 100_000);
+
+        assertEquals(0, bytes, "solve allocated");
+    }
+
+    @Test
+    void solveTime() {
+        ShotSolver solver = new ShotSolver();
+        int solves = 1_000_000;
+        int iterations = 0;
+        double worstResidual = 0;
+
+        // Second pass is the one reported, the first warms up the JIT
+        double nanos = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            iterations = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < solves; i++) {
+                double phase = i * 1e-4;
+                solver.solve(2 + Math.sin(phase), 3, 3 * Math.cos(phase), 1, HUB_X, HUB_Y);
+                iterations += solver.getIterations();
+            }
+            nanos = (System.nanoTime() - start) / (double) solves;
+        }
+
+        // Outside the timed loop: a converged solution's time of flight must reproduce itself
+        for (int i = 0; i < solves; i += 997) {
+            double phase = i * 1e-4;
+            double robotX = 2 + Math.sin(phase), vx = 3 * Math.cos(phase);
+            assertTrue(solver.solve(robotX, 3, vx, 1, HUB_X, HUB_Y), "didn't converge at phase " + phase);
+            worstResidual = Math.max(worstResidual, residual(solver, robotX, 3, vx, 1));
+        }
+
+        System.out.printf("ShotSolver: %.0f ns per solve, %.2f iterations on average, worst residual %.2g s%n",
+                nanos, iterations / (double) solves, worstResidual);
+        assertTrue(worstResidual < 2 * ShotSolver.TOLERANCE, "time of flight residual " + worstResidual);
+        // A loop is 20 ms, the solver should be a rounding error in it even on a slow build machine
+        assertTrue(nanos < 20_000, "solve took " + nanos + " ns");
+    }
+
+    /** How far the solved time of flight is from the table's time of flight to the virtual target it implies */
+    private static double residual(ShotSolver solver, double robotX, double robotY, double vx, double vy) {
+        double tof = solver.getTimeOfFlight();
+        double distance = Math.hypot(HUB_X - robotX - vx * tof, HUB_Y - robotY - vy * tof) * 100;
+        return Math.abs(ShooterDistanceMatrix.getTimeOfFlight(distance) - tof);
+    }
+}
@@ -0,0 +1,79 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.FlywheelSim;
+import frc.robot.Constants.SubsystemConstants;
+import frc.robot.subsystems.ShooterSubsystem;
+
+/**
+ * Runs {@link StateSpaceFlywheel} against a simulated flywheel with no robot, and measures spin-up and how long it
+ * takes to recover from a ball.
+ */
+class StateSpaceFlywheelTest {
+    private static final double DT = TimedRobot.kDefaultPeriod;
+    private static final double MAX_VOLTAGE = ShooterSubsystem.MAX_OUTPUT * 12;
+    private static final double SETPOINT_RPM = 3000;
+
+    private final StateSpaceFlywheel controller = new StateSpaceFlywheel(SubsystemConstants.SHOOTER_KV,
+            SubsystemConstants.SHOOTER_KA, MAX_VOLTAGE, DT);
+    private final FlywheelSim flywheel = new FlywheelSim(controller.getPlant(), DCMotor.getNEO(2));
+
+    @BeforeAll
+    static void startHal() {
+        // The simulated flywheel clamps its input to the simulated battery voltage
+        assertTrue(HAL.initialize(500, 0));
+    }
+
+    @Test
+    void spinUpAndRecovery() {
+        controller.reset(0);
+        double spinUp = secondsToReady(5);
+        assertTrue(spinUp < 5, "never reached the setpoint");
+
+        // Hold so the estimate settles, then take a ball
+        settle(2);
+        flywheel.setAngularVelocity(flywheel.getAngularVelocityRadPerSec()
+                * (1 - ShooterSubsystem.SIM_BALL_VELOCITY_LOSS));
+        double recovery = secondsToReady(5);
+
+        System.out.printf("Flywheel to %.0f RPM: spin-up %.2f s, ball recovery %.2f s%n",
+                SETPOINT_RPM, spinUp, recovery);
+        assertTrue(recovery < spinUp, "recovering from a ball took longer than spinning up");
+    }
+
+    /**
+     * Steps until the flywheel has been within the ready tolerance for the ready sample count
+     * @return seconds taken, or limit if it never got there
+     */
+    private double secondsToReady(double limit) {
+        int readySamples = 0;
+        for (double t = 0; t < limit; t += DT) {
+            step();
+            boolean atSpeed = Math.abs(flywheel.getAngularVelocityRPM() - SETPOINT_RPM)
+                    < SubsystemConstants.SHOOTER_READY_TOLERANCE_RPM;
+            readySamples = atSpeed ? readySamples + 1 : 0;
+            if (readySamples >= SubsystemConstants.SHOOTER_READY_SAMPLES) return t + DT;
+        }
+        return limit;
+    }
+
+    private void settle(double seconds) {
+        for (double t = 0; t < seconds; t += DT) {
+            step();
+        }
+    }
+
+    private void step() {
+        double volts = controller.calculate(SETPOINT_RPM, flywheel.getAngularVelocityRPM());
+        assertTrue(volts >= 0 && volts <= MAX_VOLTAGE + 1e-9, "voltage out of range: " + volts);
+        flywheel.setInputVoltage(volts);
+        flywheel.update(DT);
+    }
+}
@@ -0,0 +1,155 @@
+package frc.robot.util.drivers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Runs {@link LimelightHttpClient} against a local stub server standing in for the limelight.
+ */
+class LimelightHttpClientTest {
+    private static final String NAME = "limelight-test";
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private LimelightHttpClient client;
+
+    /** "path snapname" of every request the stub received */
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    /** Snapshot names the stub holds until {@link #release} is counted down */
+    private final List<String> blocked = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    /** Counted down when a blocked request reaches the stub */
+    private final CountDownLatch blockedArrived = new CountDownLatch(1);
+    private volatile int status = 200;
+    private volatile long delayMs = 0;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/", this::handle);
+        server.start();
+        client = new LimelightHttpClient("http://127.0.0.1:" + server.getAddress().getPort() + "/%s/");
+    }
+
+    @AfterEach
+    void stopServer() {
+        release.countDown();
+        client.shutdown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String snapshot = exchange.getRequestHeaders().getFirst("snapname");
+        received.add(exchange.getRequestURI().getPath() + " " + snapshot);
+        try {
+            if (blocked.contains(snapshot)) {
+                blockedArrived.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            if (delayMs > 0) {
+                Thread.sleep(delayMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    @Test
+    void snapshotSendsName() throws Exception {
+        assertTrue(client.takeSnapshot(NAME, "auto-start").get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("/" + NAME + "/capturesnapshot auto-start"), received);
+    }
+
+    @Test
+    void serverErrorCompletesFalse() throws Exception {
+        status = 500;
+        assertFalse(client.takeSnapshot(NAME, "a").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void slowServerTimesOut() throws Exception {
+        delayMs = LimelightHttpClient.READ_TIMEOUT_MS + 500;
+        long start = System.nanoTime();
+        assertFalse(client.takeSnapshot(NAME, "a").get(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(delayMs), "didn't time out");
+    }
+
+    @Test
+    void identicalQueuedRequestsCoalesce() throws Exception {
+        blocked.add("first");
+        CompletableFuture<Boolean> first = client.takeSnapshot(NAME, "first");
+        assertTrue(blockedArrived.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Boolean> second = client.takeSnapshot(NAME, "second");
+        assertSame(second, client.takeSnapshot(NAME, "second"));
+
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    void requestDuringInFlightIsDropped() throws Exception {
+        blocked.add("first");
+        CompletableFuture<Boolean> first = client.takeSnapshot(NAME, "first");
+        assertTrue(blockedArrived.await(5, TimeUnit.SECONDS));
+
+        assertSame(first, client.takeSnapshot(NAME, "first"));
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("/" + NAME + "/capturesnapshot first"), received);
+    }
+
+    @Test
+    void shutdownFailsQueuedWithoutSending() throws Exception {
+        blocked.add("first");
+        CompletableFuture<Boolean> first = client.takeSnapshot(NAME, "first");
+        assertTrue(blockedArrived.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = client.takeSnapshot(NAME, "queued");
+
+        client.shutdown();
+        assertFalse(queued.get(1, TimeUnit.SECONDS));
+        assertFalse(first.get(1, TimeUnit.SECONDS));
+
+        release.countDown();
+        Thread.sleep(LimelightHttpClient.MIN_INTERVAL_MS * 2);
+        assertEquals(List.of("/" + NAME + "/capturesnapshot first"), received);
+    }
+
+    @Test
+    void unexpectedExceptionCompletesFalse() throws Exception {
+        // %d can't format the name, so building the url throws
+        LimelightHttpClient broken = new LimelightHttpClient("http://127.0.0.1/%d/");
+        try {
+            assertFalse(broken.takeSnapshot(NAME, "a").get(5, TimeUnit.SECONDS));
+        } finally {
+            broken.shutdown();
+        }
+    }
+}
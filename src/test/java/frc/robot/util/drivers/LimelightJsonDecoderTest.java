@@ -0,0 +1,182 @@
+package frc.robot.util.drivers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import frc.robot.util.Allocations;
+import frc.robot.util.drivers.LimelightHelpers.LimelightResults;
+import frc.robot.util.drivers.LimelightHelpers.LimelightTarget_Fiducial;
+
+/** Checks the streaming decoder against the ObjectMapper path in {@link LimelightHelpers#getLatestResults} */
+class LimelightJsonDecoderTest {
+    /** A json dump from a limelight 4 looking at two hub tags, trimmed of classifier/detector output */
+    private static final String TWO_TAGS = "{"
+            + "\"Barcode\":[],\"Classifier\":[],\"Detector\":[],"
+            + "\"Fiducial\":["
+            + "{\"fID\":10,\"fam\":\"36H11C\",\"pts\":[],\"skew\":[],"
+            + "\"t6c_ts\":[0.41,-0.12,-3.02,1.5,-2.1,8.7],"
+            + "\"t6r_fs\":[12.9,4.3,0.0,0.0,0.0,179.2],"
+            + "\"t6r_ts\":[0.38,0.51,-3.3,1.5,-2.1,8.7],"
+            + "\"t6t_cs\":[-0.35,0.22,2.98,-1.4,2.3,-8.6],"
+            + "\"t6t_rs\":[3.1,0.4,0.9,-1.4,-17.7,-8.6],"
+            + "\"ta\":0.61,\"tx\":-6.21,\"txp\":512.4,\"ty\":4.03,\"typ\":301.9,"
+            + "\"tx_nocross\":-6.21,\"ty_nocross\":4.03,\"ts\":0.0},"
+            + "{\"fID\":9,\"fam\":\"36H11C\",\"pts\":[],\"skew\":[],"
+            + "\"t6c_ts\":[0.2,-0.1,-3.4,1.1,-1.0,4.2],"
+            + "\"t6r_fs\":[12.8,4.4,0.0,0.0,0.0,179.0],"
+            + "\"t6r_ts\":[0.1,0.5,-3.6,1.1,-1.0,4.2],"
+            + "\"t6t_cs\":[0.3,0.2,3.3,-1.0,0.9,-4.1],"
+            + "\"t6t_rs\":[3.5,-0.3,0.9,-1.0,-18.9,-4.1],"
+            + "\"ta\":0.48,\"tx\":5.12,\"txp\":801.0,\"ty\":3.8,\"typ\":305.2,"
+            + "\"tx_nocross\":5.12,\"ty_nocross\":3.8,\"ts\":0.0}"
+            + "],"
+            + "\"PythonOut\":[],\"Retro\":[],"
+            + "\"botpose\":[4.63,0.27,0.0,0.0,0.0,-0.8],"
+            + "\"botpose_avgarea\":0.545,\"botpose_avgdist\":3.35,\"botpose_span\":0.62,\"botpose_tagcount\":2,"
+            + "\"botpose_wpiblue\":[12.9,4.3,0.0,0.0,0.0,179.2],"
+            + "\"botpose_wpired\":[3.64,3.77,0.0,0.0,0.0,-0.8],"
+            + "\"cl\":11.3,\"focus_metric\":0,\"hw\":{\"cid\":9281024,\"cpu\":42.1,\"dfree\":12001,\"ram\":39.5,"
+            + "\"temp\":51.0},\"pID\":0,\"pTYPE\":\"pipe_fiducial\",\"stdev_mt1\":[0.1,0.1,0,0,0,1.2],"
+            + "\"stdev_mt2\":[0.05,0.05,0,0,0,0],\"t6c_rs\":[0.3,0.0,0.5,0.0,-20.0,0.0],"
+            + "\"tl\":18.4,\"ts\":5204415.2,\"ts_nt\":5204431,\"ts_rio\":5204398.7,\"ts_sys\":5204431,\"v\":1"
+            + "}";
+
+    /** The same camera a moment later with one tag in view */
+    private static final String ONE_TAG = TWO_TAGS
+            .replaceFirst("\\{\"fID\":10.*?\\},\\{", "{")
+            .replace("\"botpose_tagcount\":2", "\"botpose_tagcount\":1");
+
+    /** The two tag frame with a few keys missing, from the first tag and the top level */
+    private static final String MISSING_KEYS = TWO_TAGS
+            .replaceFirst("\"fam\":\"36H11C\",", "")
+            .replaceFirst("\"t6t_rs\":\\[[^\\]]*\\],", "")
+            .replaceFirst("\"ta\":0.61,", "")
+            .replace("\"botpose_span\":0.62,", "")
+            .replace("\"botpose_wpired\":[3.64,3.77,0.0,0.0,0.0,-0.8],", "")
+            .replace("\"tl\":18.4,", "");
+
+    /** Same settings as {@link LimelightHelpers#getLatestResults}, shared like its static mapper */
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static LimelightResults readWithMapper(String json) throws Exception {
+        return MAPPER.readValue(json, LimelightResults.class);
+    }
+
+    private static void assertSameResults(LimelightResults expected, LimelightResults actual) {
+        assertNull(actual.error);
+        assertEquals(expected.pipelineID, actual.pipelineID);
+        assertEquals(expected.latency_pipeline, actual.latency_pipeline);
+        assertEquals(expected.latency_capture, actual.latency_capture);
+        assertEquals(expected.timestamp_LIMELIGHT_publish, actual.timestamp_LIMELIGHT_publish);
+        assertEquals(expected.timestamp_RIOFPGA_capture, actual.timestamp_RIOFPGA_capture);
+        assertEquals(expected.valid, actual.valid);
+        assertArrayEquals(expected.botpose, actual.botpose);
+        assertArrayEquals(expected.botpose_wpired, actual.botpose_wpired);
+        assertArrayEquals(expected.botpose_wpiblue, actual.botpose_wpiblue);
+        assertEquals(expected.botpose_tagcount, actual.botpose_tagcount);
+        assertEquals(expected.botpose_span, actual.botpose_span);
+        assertEquals(expected.botpose_avgdist, actual.botpose_avgdist);
+        assertEquals(expected.botpose_avgarea, actual.botpose_avgarea);
+        assertArrayEquals(expected.camerapose_robotspace, actual.camerapose_robotspace);
+
+        assertEquals(expected.targets_Fiducials.length, actual.targets_Fiducials.length);
+        for (int i = 0; i < expected.targets_Fiducials.length; i++) {
+            LimelightTarget_Fiducial e = expected.targets_Fiducials[i];
+            LimelightTarget_Fiducial a = actual.targets_Fiducials[i];
+            assertEquals(e.fiducialID, a.fiducialID);
+            assertEquals(e.fiducialFamily, a.fiducialFamily);
+            assertArrayEquals(e.cameraPose_TargetSpace, a.cameraPose_TargetSpace);
+            assertArrayEquals(e.robotPose_FieldSpace, a.robotPose_FieldSpace);
+            assertArrayEquals(e.robotPose_TargetSpace, a.robotPose_TargetSpace);
+            assertArrayEquals(e.targetPose_CameraSpace, a.targetPose_CameraSpace);
+            assertArrayEquals(e.targetPose_RobotSpace, a.targetPose_RobotSpace);
+            assertEquals(e.ta, a.ta);
+            assertEquals(e.tx, a.tx);
+            assertEquals(e.ty, a.ty);
+            assertEquals(e.tx_pixels, a.tx_pixels);
+            assertEquals(e.ty_pixels, a.ty_pixels);
+            assertEquals(e.tx_nocrosshair, a.tx_nocrosshair);
+            assertEquals(e.ty_nocrosshair, a.ty_nocrosshair);
+            assertEquals(e.ts, a.ts);
+        }
+    }
+
+    @Test
+    void matchesObjectMapper() throws Exception {
+        LimelightJsonDecoder decoder = new LimelightJsonDecoder();
+        assertSameResults(readWithMapper(TWO_TAGS), decoder.decode(TWO_TAGS, LimelightJsonDecoder.SECTION_ALL));
+    }
+
+    @Test
+    void reusedResultsMatchObjectMapper() throws Exception {
+        LimelightJsonDecoder decoder = new LimelightJsonDecoder();
+        decoder.decode(TWO_TAGS, LimelightJsonDecoder.SECTION_ALL);
+        // Pooled targets from the two tag frame must not leak into the one tag frame
+        assertSameResults(readWithMapper(ONE_TAG), decoder.decode(ONE_TAG, LimelightJsonDecoder.SECTION_ALL));
+        assertSameResults(readWithMapper(TWO_TAGS), decoder.decode(TWO_TAGS, LimelightJsonDecoder.SECTION_ALL));
+    }
+
+    @Test
+    void missingKeysReadAsDefaults() throws Exception {
+        assertTrue(MISSING_KEYS.length() < TWO_TAGS.length() - 100, "test frame still has its keys");
+
+        LimelightJsonDecoder decoder = new LimelightJsonDecoder();
+        decoder.decode(TWO_TAGS, LimelightJsonDecoder.SECTION_ALL);
+        LimelightResults results = decoder.decode(MISSING_KEYS, LimelightJsonDecoder.SECTION_ALL);
+
+        assertSameResults(readWithMapper(MISSING_KEYS), results);
+        assertNull(results.targets_Fiducials[0].fiducialFamily);
+        assertEquals(0, results.targets_Fiducials[0].ta);
+        assertEquals(0, results.latency_pipeline);
+    }
+
+    @Test
+    void fasterAndLeanerThanObjectMapper() throws Exception {
+        LimelightJsonDecoder decoder = new LimelightJsonDecoder();
+        int warmup = 5_000;
+        int iterations = 20_000;
+
+        long decoderBytes = Allocations.allocatedBytes(
+                () -> decoder.decode(TWO_TAGS, LimelightJsonDecoder.SECTION_ALL), warmup, iterations);
+        long mapperBytes = Allocations.allocatedBytes(() -> {
+            try {
+                readWithMapper(TWO_TAGS);
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        }, warmup, iterations);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            decoder.decode(TWO_TAGS, LimelightJsonDecoder.SECTION_ALL);
+        }
+        double decoderMicros = (System.nanoTime() - start) / 1e3 / iterations;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            readWithMapper(TWO_TAGS);
+        }
+        double mapperMicros = (System.nanoTime() - start) / 1e3 / iterations;
+
+        System.out.printf("json decode: streaming %.1f us %d B, ObjectMapper %.1f us %d B per frame%n",
+                decoderMicros, decoderBytes / iterations, mapperMicros, mapperBytes / iterations);
+        // The parser itself still allocates a little, the mapper allocates every target and array on top of that
+        assertTrue(decoderBytes * 4 < mapperBytes, "streaming decode allocated " + decoderBytes
+                + " B, ObjectMapper " + mapperBytes + " B");
+        assertTrue(decoderMicros < mapperMicros * 2, "streaming decode is slower than ObjectMapper");
+    }
+
+    @Test
+    void reportsMalformedJson() {
+        LimelightJsonDecoder decoder = new LimelightJsonDecoder();
+        LimelightResults results = decoder.decode("{\"v\":1,\"botpose\":[1,2", LimelightJsonDecoder.SECTION_ALL);
+        assertTrue(results.error.startsWith("lljson error"));
+    }
+}
@@ -0,0 +1,74 @@
+package frc.robot.util.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.util.Interpolable;
+
+/**
+ * Checks {@link InterpolableTable} lookups between, at and past its points.
+ */
+class InterpolableTableTest {
+    /** Flywheel speed and hood angle for one distance */
+    private record Shot(double speed, double angle) implements Interpolable<Shot> {
+        @Override
+        public Shot interpolate(Shot other, double t) {
+            return new Shot(speed + (other.speed - speed) * t, angle + (other.angle - angle) * t);
+        }
+    }
+
+    private static final Shot NEAR = new Shot(0.4, 60);
+    private static final Shot MID = new Shot(0.55, 50);
+    private static final Shot FAR = new Shot(0.8, 35);
+
+    @Test
+    void interpolatesBetweenPoints() {
+        // Out of order on purpose, the table sorts them
+        InterpolableTable<Shot> table = new InterpolableTable<>(new double[] { 300, 100, 200 },
+                new Shot[] { FAR, NEAR, MID });
+
+        Shot shot = table.get(150);
+        assertEquals(0.475, shot.speed(), 1e-12);
+        assertEquals(55, shot.angle(), 1e-12);
+
+        shot = table.get(275);
+        assertEquals(0.7375, shot.speed(), 1e-12);
+        assertEquals(38.75, shot.angle(), 1e-12);
+
+        assertEquals(MID.speed(), table.get(200).speed(), 1e-12);
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    void clampsAtBothEnds() {
+        InterpolableTable<Shot> table = new InterpolableTable<>(new double[] { 100, 200, 300 },
+                new Shot[] { NEAR, MID, FAR });
+
+        assertSame(NEAR, table.get(100));
+        assertSame(NEAR, table.get(-50));
+        assertSame(FAR, table.get(300));
+        assertSame(FAR, table.get(1e9));
+    }
+
+    @Test
+    void singlePointTable() {
+        InterpolableTable<Shot> table = new InterpolableTable<>(new double[] { 200 }, new Shot[] { MID });
+
+        assertSame(MID, table.get(0));
+        assertSame(MID, table.get(200));
+        assertSame(MID, table.get(400));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void rejectsBadPoints() {
+        assertThrows(IllegalArgumentException.class, () -> new InterpolableTable<>(new double[0], new Shot[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> new InterpolableTable<>(new double[] { 100, 200 }, new Shot[] { NEAR }));
+        assertThrows(IllegalArgumentException.class,
+                () -> new InterpolableTable<>(new double[] { 100, 100 }, new Shot[] { NEAR, MID }));
+    }
+}
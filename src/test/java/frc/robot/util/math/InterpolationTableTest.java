@@ -0,0 +1,118 @@
+package frc.robot.util.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.interpolation.InterpolatingDoubleTreeMap;
+import frc.robot.util.Allocations;
+
+/**
+ * Compares {@link InterpolationTable} against the {@link InterpolatingDoubleTreeMap} it replaces: same answers, no
+ * allocation, and the lookup time of each.
+ */
+class InterpolationTableTest {
+    private static final int POINTS = 40;
+    private static final int LOOKUPS = 1_000_000;
+
+    private final double[] keys = new double[POINTS];
+    private final double[] values = new double[POINTS];
+    private final double[] queries = new double[4096];
+
+    InterpolationTableTest() {
+        Random random = new Random(3418);
+        double key = 100;
+        double value = 0.3;
+        for (int i = 0; i < POINTS; i++) {
+            key += 5 + random.nextDouble() * 20;
+            value += random.nextDouble() * 0.02;
+            keys[i] = key;
+            values[i] = value;
+        }
+        for (int i = 0; i < queries.length; i++) {
+            // Some queries fall off each end to cover clamping
+            queries[i] = keys[0] - 50 + random.nextDouble() * (keys[POINTS - 1] - keys[0] + 100);
+        }
+    }
+
+    @Test
+    void matchesTreeMap() {
+        InterpolationTable table = new InterpolationTable(keys, values);
+        InterpolatingDoubleTreeMap treeMap = treeMap();
+
+        for (double query : queries) {
+            assertEquals(treeMap.get(query), table.get(query), 1e-12, "key " + query);
+        }
+        for (int i = 0; i < POINTS; i++) {
+            assertEquals(values[i], table.get(keys[i]), 1e-12);
+        }
+    }
+
+    @Test
+    void uniformMatchesTreeMap() {
+        double[] uniformValues = new double[POINTS];
+        InterpolatingDoubleTreeMap treeMap = new InterpolatingDoubleTreeMap();
+        for (int i = 0; i < POINTS; i++) {
+            uniformValues[i] = values[i];
+            treeMap.put(100 + 10.0 * i, values[i]);
+        }
+        InterpolationTable table = InterpolationTable.uniform(100, 10, uniformValues);
+
+        for (int i = 0; i <= 5000; i++) {
+            double query = 50 + i * 0.1;
+            assertEquals(treeMap.get(query), table.get(query), 1e-12, "key " + query);
+        }
+    }
+
+    @Test
+    void getDoesNotAllocate() {
+        InterpolationTable sorted = new InterpolationTable(keys, values);
+        InterpolationTable uniform = sorted.toUniform(256);
+        double[] sink = new double[1];
+        int[] next = new int[1];
+
+        long bytes = Allocations.allocatedBytes(() -> {
+            double query = queries[next[0]++ & (queries.length - 1)];
+            sink[0] += sorted.get(query) + uniform.get(query);
+        }, 20_000, 100_000);
+
+        assertEquals(0, bytes, "get allocated");
+    }
+
+    @Test
+    void lookupTime() {
+        InterpolationTable sorted = new InterpolationTable(keys, values);
+        InterpolationTable uniform = sorted.toUniform(256);
+        InterpolatingDoubleTreeMap treeMap = treeMap();
+
+        // Run each twice, the first pass warms up the JIT
+        double[] nanos = new double[3];
+        double sink = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) sink += treeMap.get(queries[i & (queries.length - 1)]);
+            nanos[0] = (System.nanoTime() - start) / (double) LOOKUPS;
+
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) sink += sorted.get(queries[i & (queries.length - 1)]);
+            nanos[1] = (System.nanoTime() - start) / (double) LOOKUPS;
+
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) sink += uniform.get(queries[i & (queries.length - 1)]);
+            nanos[2] = (System.nanoTime() - start) / (double) LOOKUPS;
+        }
+
+        System.out.printf("ns per get: tree map %.1f, sorted %.1f, uniform %.1f (%s)%n",
+                nanos[0], nanos[1], nanos[2], sink > 0 ? "ok" : "?");
+    }
+
+    private InterpolatingDoubleTreeMap treeMap() {
+        InterpolatingDoubleTreeMap treeMap = new InterpolatingDoubleTreeMap();
+        for (int i = 0; i < POINTS; i++) {
+            treeMap.put(keys[i], values[i]);
+        }
+        return treeMap;
+    }
+}
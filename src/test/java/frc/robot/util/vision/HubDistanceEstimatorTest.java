@@ -0,0 +1,75 @@
+package frc.robot.util.vision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.apriltag.AprilTagFields;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.util.LimelightTAMatrix;
+import frc.robot.util.PoseHistory;
+
+/**
+ * Points a {@link LimelightSim} at the red hub and checks the estimator's distance from each source.
+ */
+class HubDistanceEstimatorTest {
+    private static final String NAME = "limelight-hub-test";
+    private static final double RANGE = 3;
+
+    private static final AprilTagFieldLayout field = AprilTagFieldLayout.loadField(AprilTagFields.kDefaultField);
+
+    @BeforeAll
+    static void startHal() {
+        assertTrue(HAL.initialize(500, 0));
+        SimHooks.pauseTiming();
+        LimelightTAMatrix.InitializeMatrix();
+    }
+
+    @AfterAll
+    static void resumeTiming() {
+        SimHooks.resumeTiming();
+    }
+
+    @Test
+    void tagPoseGivesHubDistance() {
+        // Straight out from the priority tag's face, looking at it
+        Pose2d tag = field.getTagPose(HubTargets.RED_PRIORITY_TAG).orElseThrow().toPose2d();
+        Pose2d robot = new Pose2d(tag.getTranslation().plus(new Translation2d(RANGE, tag.getRotation())),
+                tag.getRotation().rotateBy(Rotation2d.k180deg));
+
+        LimelightSim camera = new LimelightSim(NAME, () -> robot, field, new Transform3d())
+                .withNoise(0, 0)
+                .withLatency(0, 0)
+                .withFrameRate(50);
+        HubTargets hubTargets = new HubTargets(NAME);
+        HubDistanceEstimator estimator = new HubDistanceEstimator(NAME, hubTargets, field);
+        TargetTracker tracker = new TargetTracker();
+        PoseHistory history = new PoseHistory(50);
+
+        for (int i = 0; i < 10; i++) {
+            SimHooks.stepTiming(0.02);
+            double now = Timer.getFPGATimestamp();
+            camera.update();
+            history.add(now, robot.getX(), robot.getY(), robot.getRotation().getRadians(), 0, 0, 0);
+            tracker.update(VisionSnapshot.update(NAME), history, now);
+            // No recent vision fusion, so the fused pose isn't trusted
+            estimator.update(tracker, robot, Double.POSITIVE_INFINITY);
+        }
+
+        assertEquals(HubTargets.RED_PRIORITY_TAG, tracker.getTid());
+        assertEquals(HubDistanceEstimator.Source.TAG_3D, estimator.getSource());
+        double expected = Math.hypot(estimator.getHubX() - robot.getX(), estimator.getHubY() - robot.getY()) * 100;
+        assertEquals(expected, estimator.getDistance(), 1);
+        assertEquals(0.9 * (1 - RANGE / HubDistanceEstimator.MAX_TAG_DISTANCE), estimator.getConfidence(), 0.01);
+    }
+}
@@ -0,0 +1,48 @@
+package frc.robot.util.vision;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.util.drivers.LimelightHelpers;
+
+/**
+ * Checks which filters {@link HubTargets} pushes to each camera before the alliance is known.
+ */
+class HubTargetsTest {
+    @Test
+    void localizationCamerasKeepEveryTag() {
+        new HubTargets("limelight-aim-loc", "limelight-aim-loc", "limelight-side");
+
+        assertArrayEquals(fieldTags(), filter("limelight-aim-loc"));
+        assertArrayEquals(fieldTags(), filter("limelight-side"));
+        assertEquals(HubTargets.NO_PRIORITY_TAG, LimelightHelpers.getLimelightNTDouble("limelight-aim-loc",
+                "priorityid"));
+    }
+
+    @Test
+    void dedicatedAimingCameraSeesBothHubs() {
+        HubTargets targets = new HubTargets("limelight-aim-only", "limelight-front");
+
+        double[] filter = filter("limelight-aim-only");
+        assertEquals(HubTargets.RED_HUB_TAGS.length + HubTargets.BLUE_HUB_TAGS.length, filter.length);
+        for (double id : filter) {
+            assertTrue(targets.isHubTag((int) id));
+        }
+        assertFalse(targets.isHubTag(1));
+        assertArrayEquals(fieldTags(), filter("limelight-front"));
+    }
+
+    private static double[] filter(String name) {
+        return LimelightHelpers.getLimelightNTDoubleArray(name, "fiducial_id_filters_set");
+    }
+
+    private static double[] fieldTags() {
+        return Arrays.stream(HubTargets.FIELD_TAGS).asDoubleStream().toArray();
+    }
+}
@@ -0,0 +1,52 @@
+package frc.robot.util.vision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.util.Allocations;
+import frc.robot.util.drivers.LimelightHelpers.RawFiducial;
+
+class PoseEstimateDecoderTest {
+    /** botpose with two tags: 11 pose values then 7 per tag */
+    private static final double[] BOTPOSE = {
+        3.2, 4.1, 0, 0, 0, 45, 28.5, 2, 0.8, 2.7, 0.4,
+        10, 0.1, -0.2, 0.5, 2.6, 2.9, 0.05,
+        11, -0.3, 0.1, 0.3, 2.8, 3.1, 0.12
+    };
+    private static final double[] RAW_FIDUCIALS = {
+        10, 0.1, -0.2, 0.5, 2.6, 2.9, 0.05,
+        11, -0.3, 0.1, 0.3, 2.8, 3.1, 0.12
+    };
+
+    @Test
+    void decodesBotpose() {
+        PoseEstimateBuffer out = new PoseEstimateBuffer();
+        assertTrue(PoseEstimateDecoder.decode(BOTPOSE, 2_000_000, true, out));
+
+        assertEquals(3.2, out.x);
+        assertEquals(4.1, out.y);
+        assertEquals(45, out.yawDegrees);
+        assertEquals(2, out.tagCount);
+        assertEquals(2, out.fiducialCount);
+        assertEquals(11, out.rawFiducials[1].id);
+        assertEquals(0.12, out.rawFiducials[1].ambiguity);
+        assertEquals(2 - 0.0285, out.timestampSeconds, 1e-9);
+    }
+
+    @Test
+    void decodeDoesNotAllocate() {
+        PoseEstimateBuffer pose = new PoseEstimateBuffer();
+        RawFiducial[] fiducials = PoseEstimateDecoder.allocateFiducials(PoseEstimateBuffer.DEFAULT_TAG_CAPACITY);
+        int[] count = new int[1];
+
+        long bytes = Allocations.allocatedBytes(() -> {
+            PoseEstimateDecoder.decode(BOTPOSE, 2_000_000, true, pose);
+            count[0] += PoseEstimateDecoder.decodeRawFiducials(RAW_FIDUCIALS, fiducials);
+        }, 20_000, 100_000);
+
+        assertEquals(0, bytes, "decode allocated");
+        assertTrue(count[0] > 0);
+    }
+}
@@ -0,0 +1,55 @@
+package frc.robot.util.vision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import frc.robot.util.PoseHistory;
+import frc.robot.util.drivers.LimelightHelpers;
+
+/**
+ * Feeds {@link TargetTracker} through the limelight's table, the same way the robot reads it.
+ */
+class TargetTrackerTest {
+    private static final String NAME = "limelight-tracker-test";
+    private static final double PERIOD = 0.02;
+
+    @Test
+    void stillTargetStaysTracked() {
+        NetworkTable table = LimelightHelpers.getLimelightNTTable(NAME);
+        PoseHistory history = new PoseHistory(50);
+        TargetTracker tracker = new TargetTracker();
+
+        try (DoublePublisher tv = table.getDoubleTopic("tv").publish();
+                DoublePublisher tx = table.getDoubleTopic("tx").publish();
+                DoublePublisher hb = table.getDoubleTopic("hb").publish()) {
+            double t = 1;
+            tv.set(1, micros(t));
+            // Robot and target don't move, so tx is only published once
+            tx.set(5, micros(t));
+            for (int frame = 1; frame <= 50; frame++, t += PERIOD) {
+                hb.set(frame, micros(t));
+                history.add(t, 0, 0, 0, 0, 0, 0);
+                tracker.update(VisionSnapshot.update(NAME), history, t);
+            }
+            assertTrue(tracker.hasTarget(), "lost a target that is still being published");
+            assertEquals(5, tracker.getTx(), 0.01);
+
+            // Camera stops sending frames
+            double stopped = t;
+            for (; t < stopped + 2 * TargetTracker.LOST_TIMEOUT; t += PERIOD) {
+                history.add(t, 0, 0, 0, 0, 0, 0);
+                tracker.update(VisionSnapshot.update(NAME), history, t);
+            }
+            assertFalse(tracker.hasTarget(), "kept tracking with no new frames");
+        }
+    }
+
+    private static long micros(double seconds) {
+        return (long) (seconds * 1000000);
+    }
+}
@@ -0,0 +1,113 @@
+package frc.robot.util.vision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.robot.util.drivers.LimelightHelpers;
+
+/**
+ * Checks the listener hands frames to the loop, and compares the loop's vision cost with and without it. Frames are
+ * published locally so no limelight is needed.
+ */
+class VisionListenerTest {
+    private static final String NAME = "limelight-test";
+    private static final int FRAMES = 2_000;
+
+    private DoubleArrayPublisher publisher;
+
+    @BeforeEach
+    void publish() {
+        publisher = LimelightHelpers.getLimelightNTTable(NAME).getDoubleArrayTopic("botpose_orb_wpiblue").publish();
+    }
+
+    @AfterEach
+    void unpublish() {
+        publisher.close();
+    }
+
+    @Test
+    void handsNewestFrameToLoop() throws InterruptedException {
+        try (VisionListener listener = new VisionListener(NAME)) {
+            assertFalse(listener.update());
+
+            publishFrame(1);
+            assertTrue(awaitFrame(listener));
+            assertEquals(1, listener.get().x, 1e-9);
+            assertFalse(listener.update(), "same frame handed over twice");
+
+            publishFrame(2);
+            assertTrue(awaitFrame(listener));
+            assertEquals(2, listener.get().x, 1e-9);
+        }
+    }
+
+    @Test
+    void loopTimeWithAndWithoutListener() throws InterruptedException {
+        long pollNanos = 0;
+        int polled = 0;
+        for (int i = 0; i < FRAMES; i++) {
+            publishFrame(i);
+            long start = System.nanoTime();
+            LimelightHelpers.PoseEstimate estimate = LimelightHelpers.getBotPoseEstimate_wpiBlue_MegaTag2(NAME);
+            pollNanos += System.nanoTime() - start;
+            if (estimate != null && estimate.tagCount > 0) polled++;
+        }
+
+        long eventNanos = 0;
+        int received = 0;
+        try (VisionListener listener = new VisionListener(NAME)) {
+            for (int i = 0; i < FRAMES; i++) {
+                publishFrame(FRAMES + i);
+                // Wait outside the timed section, the loop would be doing other work meanwhile
+                assertTrue(awaitPending(listener), "frame never arrived");
+                long start = System.nanoTime();
+                boolean fresh = listener.update();
+                PoseEstimateBuffer frame = listener.get();
+                eventNanos += System.nanoTime() - start;
+                assertNotNull(frame);
+                if (fresh) received++;
+            }
+        }
+
+        System.out.printf("vision per loop: polling %.2f us, listener %.2f us%n",
+                pollNanos / 1e3 / FRAMES, eventNanos / 1e3 / FRAMES);
+        assertEquals(FRAMES, polled);
+        assertEquals(FRAMES, received);
+    }
+
+    private void publishFrame(double x) {
+        publisher.set(new double[] {
+            x, 4.1, 0, 0, 0, 45, 28.5, 1, 0, 2.7, 0.4,
+            10, 0.1, -0.2, 0.5, 2.6, 2.9, 0.05
+        }, 1_000_000 + (long) (x * 1000));
+        NetworkTableInstance.getDefault().flushLocal();
+    }
+
+    /** Polls until a frame arrives or a second passes */
+    private static boolean awaitFrame(VisionListener listener) throws InterruptedException {
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            if (listener.update()) return true;
+            Thread.sleep(1);
+        }
+        return false;
+    }
+
+    /** Waits until a frame is waiting without taking it, or a second passes */
+    private static boolean awaitPending(VisionListener listener) throws InterruptedException {
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            if (listener.hasNewFrame()) return true;
+            Thread.sleep(0, 100_000);
+        }
+        return false;
+    }
+}
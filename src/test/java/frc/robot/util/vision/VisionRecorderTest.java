@@ -0,0 +1,96 @@
+package frc.robot.util.vision;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.networktables.StringArraySubscriber;
+import edu.wpi.first.networktables.StringPublisher;
+import edu.wpi.first.networktables.StringSubscriber;
+import edu.wpi.first.networktables.TimestampedDouble;
+import edu.wpi.first.networktables.TimestampedDoubleArray;
+
+/**
+ * Records a limelight table on one NetworkTables instance and plays it back into another.
+ */
+class VisionRecorderTest {
+    private static final String NAME = "limelight-test";
+
+    @Test
+    void roundTrip(@TempDir Path directory) throws Exception {
+        File file = directory.resolve("vision.llrec").toFile();
+        double[] botpose = { 3.2, 4.1, 0, 0, 0, 45, 28.5, 1, 0, 2.7, 0.4 };
+        String json = "{\"Results\":{\"tl\":12.5}}";
+        String[] barcodes = { "a", "b" };
+
+        NetworkTableInstance source = NetworkTableInstance.create();
+        try {
+            NetworkTable table = source.getTable(NAME);
+            try (VisionRecorder recorder = new VisionRecorder(source, NAME, file);
+                    DoublePublisher tx = table.getDoubleTopic("tx").publish();
+                    DoubleArrayPublisher pose = table.getDoubleArrayTopic("botpose_orb_wpiblue").publish();
+                    StringPublisher dump = table.getStringTopic("json").publish();
+                    StringArrayPublisher codes = table.getStringArrayTopic("rawbarcodes").publish()) {
+                for (int i = 0; i < 10; i++) {
+                    tx.set(i, 1_000_000 + i * 20_000L);
+                }
+                pose.set(botpose, 1_100_000);
+                dump.set(json, 1_150_000);
+                codes.set(barcodes, 1_180_000);
+                assertTrue(source.waitForListenerQueue(1), "listener fell behind");
+                assertEquals(0, recorder.getDroppedCount());
+            }
+        } finally {
+            source.close();
+        }
+
+        VisionReplayer replayer = new VisionReplayer(file);
+        assertEquals(13, replayer.size());
+        assertEquals(0.18, replayer.duration(), 1e-9);
+
+        NetworkTableInstance target = NetworkTableInstance.create();
+        try {
+            NetworkTable table = target.getTable(NAME);
+            // Subscribe before playing, the replayer unpublishes when it finishes
+            PubSubOption queue = PubSubOption.pollStorage(32);
+            try (DoubleSubscriber tx = table.getDoubleTopic("tx").subscribe(-1, queue);
+                    DoubleArraySubscriber pose = table.getDoubleArrayTopic("botpose_orb_wpiblue")
+                            .subscribe(new double[0], queue);
+                    StringSubscriber dump = table.getStringTopic("json").subscribe("", queue);
+                    StringArraySubscriber codes = table.getStringArrayTopic("rawbarcodes")
+                            .subscribe(new String[0], queue)) {
+                replayer.play(target, NAME, Double.POSITIVE_INFINITY);
+
+                // Played as fast as possible, but the timestamps keep the recorded spacing
+                TimestampedDouble[] received = tx.readQueue();
+                assertEquals(10, received.length);
+                for (int i = 0; i < received.length; i++) {
+                    assertEquals(i, received[i].value);
+                    assertEquals(i * 20_000L, received[i].timestamp - received[0].timestamp);
+                }
+                TimestampedDoubleArray[] poses = pose.readQueue();
+                assertEquals(1, poses.length);
+                assertArrayEquals(botpose, poses[0].value);
+                assertEquals(100_000L, poses[0].timestamp - received[0].timestamp);
+                assertArrayEquals(new String[] { json }, dump.readQueueValues());
+                assertArrayEquals(new String[][] { barcodes }, codes.readQueueValues());
+            }
+        } finally {
+            target.close();
+        }
+    }
+}